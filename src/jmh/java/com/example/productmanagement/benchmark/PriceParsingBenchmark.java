@@ -0,0 +1,67 @@
+package com.example.productmanagement.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí phân tích và định dạng giá {@link BigDecimal}: từ tham số request (chuỗi),
+ * từ số thực (client gửi JSON number), và khi xuất ra chuỗi.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PriceParsingBenchmark {
+
+    @Param({ "199000", "199000.99", "1234567890.50" })
+    public String text;
+
+    private double value;
+    private BigDecimal price;
+
+    @Setup
+    public void setUp() {
+        value = Double.parseDouble(text);
+        price = new BigDecimal(text);
+    }
+
+    @Benchmark
+    public BigDecimal parseString() {
+        return new BigDecimal(text);
+    }
+
+    @Benchmark
+    public BigDecimal parseDouble() {
+        return BigDecimal.valueOf(value);
+    }
+
+    @Benchmark
+    public BigDecimal parseAndScale() {
+        return new BigDecimal(text).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public String formatToString() {
+        return price.toString();
+    }
+
+    @Benchmark
+    public String formatPlain() {
+        return price.toPlainString();
+    }
+}
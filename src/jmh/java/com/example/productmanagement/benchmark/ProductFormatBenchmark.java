@@ -0,0 +1,119 @@
+package com.example.productmanagement.benchmark;
+
+import com.example.productmanagement.dto.ProductDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * So sánh các định dạng phản hồi của API sản phẩm: JSON, JSON nén gzip (như
+ * {@code server.compression}), Smile và CBOR (chọn bằng header {@code Accept}).
+ * Thời gian đo là chi phí CPU tuần tự hóa/giải tuần tự hóa một trang; số byte trên đường
+ * truyền của mỗi định dạng được ghi ra log khi kết thúc mỗi lần chạy ({@code bytes=...}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductFormatBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductFormatBenchmark.class);
+
+    private static final TypeReference<List<ProductDTO>> PRODUCT_LIST = new TypeReference<>() {
+    };
+
+    @Param({ "json", "json-gzip", "smile", "cbor" })
+    public String format;
+
+    @Param({ "10", "100", "1000" })
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private boolean gzip;
+    private Page<ProductDTO> page;
+    private List<ProductDTO> products;
+    private byte[] pageBytes;
+    private byte[] productsBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Cùng cấu hình với các converter mà Spring MVC đăng ký cho từng định dạng
+        objectMapper = switch (format) {
+            case "json", "json-gzip" -> Jackson2ObjectMapperBuilder.json().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        gzip = format.equals("json-gzip");
+        products = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            products.add(ProductJsonBenchmark.product(i));
+        }
+        page = new PageImpl<>(products, PageRequest.of(0, pageSize, Sort.by("name")), 100_000);
+        pageBytes = serializePage();
+        productsBytes = encode(objectMapper.writeValueAsBytes(products));
+    }
+
+    @TearDown(Level.Trial)
+    public void reportSize() {
+        log.info(String.format("format=%s pageSize=%d bytes=%d (%.1f bytes/product)", format, pageSize,
+                pageBytes.length, (double) pageBytes.length / pageSize));
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws IOException {
+        return encode(objectMapper.writeValueAsBytes(page));
+    }
+
+    @Benchmark
+    public List<ProductDTO> deserializeProducts() throws IOException {
+        if (!gzip) {
+            return objectMapper.readValue(productsBytes, PRODUCT_LIST);
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(productsBytes))) {
+            return objectMapper.readValue(in, PRODUCT_LIST);
+        }
+    }
+
+    private byte[] encode(byte[] body) throws IOException {
+        if (!gzip) {
+            return body;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream compressed = new GZIPOutputStream(out)) {
+            compressed.write(body);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.productmanagement.benchmark;
+
+import com.example.productmanagement.dto.ProductDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí tuần tự hóa JSON (Jackson, cấu hình như Spring Boot) của một {@link ProductDTO}
+ * và của {@code Page<ProductDTO>} với nhiều kích thước trang.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductJsonBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private ProductDTO product;
+    private Page<ProductDTO> page;
+    private byte[] productJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<ProductDTO> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            content.add(product(i));
+        }
+        product = content.get(0);
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize, Sort.by("name")), 100_000);
+        productJson = objectMapper.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public byte[] serializeProduct() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public ProductDTO deserializeProduct() throws java.io.IOException {
+        return objectMapper.readValue(productJson, ProductDTO.class);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    static ProductDTO product(int i) {
+        LocalDateTime now = LocalDateTime.of(2024, 8, 1, 12, 0).plusMinutes(i);
+        return new ProductDTO((long) i, "Sản phẩm " + i, new BigDecimal("199000.00").add(BigDecimal.valueOf(i)),
+                new BigDecimal("149000.00"), "https://example.com/img/" + i + ".png",
+                "Mô tả sản phẩm " + i, "Danh mục " + (1 + i % 3), "ACTIVE", now, now, 1L);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.productmanagement.service;
+
+import com.example.productmanagement.dto.ProductDTO;
+import com.example.productmanagement.repository.ProductRepository;
+import com.example.productmanagement.search.ProductPriceIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí phần xử lý trong {@code getAllProducts} ngoài cơ sở dữ liệu: chọn nhánh lọc,
+ * dựng {@code PageRequest}, ghi số liệu theo nhánh và gọi repository (được thay bằng một stub
+ * trả về trang có sẵn).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilterDispatchBenchmark {
+
+    @Param({ "none", "name", "price", "name+price" })
+    public String filter;
+
+    private ProductService productService;
+    private String name;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+
+    @Setup
+    public void setUp() {
+        List<ProductDTO> content = List.of(new ProductDTO(1L, "Sản phẩm", BigDecimal.TEN, null, null, null,
+                "Danh mục 1", "ACTIVE"));
+        ProductRepository repository = (ProductRepository) Proxy.newProxyInstance(
+                ProductRepository.class.getClassLoader(), new Class<?>[] { ProductRepository.class },
+                (proxy, method, args) -> {
+                    if (method.getReturnType() == Page.class) {
+                        Pageable pageable = (Pageable) args[args.length - 1];
+                        return new PageImpl<>(content, pageable, 1);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        productService = new ProductService();
+        ReflectionTestUtils.setField(productService, "productRepository", repository);
+        ReflectionTestUtils.setField(productService, "meterRegistry", new SimpleMeterRegistry());
+        // Chỉ mục giá chưa dựng: nhánh lọc theo giá đi theo đường truy vấn Page như trên cơ sở dữ liệu
+        ReflectionTestUtils.setField(productService, "productPriceIndex", new ProductPriceIndex(false));
+        // Không gộp lời gọi (coalesceEnabled = false): benchmark gọi tuần tự trên một luồng
+        productService.initCoalescing();
+
+        name = filter.contains("name") ? "sản phẩm" : null;
+        minPrice = filter.contains("price") ? new BigDecimal("1000") : null;
+        maxPrice = filter.contains("price") ? new BigDecimal("500000") : null;
+    }
+
+    @Benchmark
+    public Page<ProductDTO> getAllProducts() {
+        return productService.getAllProducts(name, minPrice, maxPrice, 2, 20);
+    }
+}
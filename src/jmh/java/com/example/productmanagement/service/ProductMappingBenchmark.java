@@ -0,0 +1,55 @@
+package com.example.productmanagement.service;
+
+import com.example.productmanagement.dto.ProductDTO;
+import com.example.productmanagement.entity.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí chuyển đổi giữa entity và DTO ({@code convertToDTO}/{@code convertToEntity}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductMappingBenchmark {
+
+    private ProductService productService;
+    private Product product;
+    private ProductDTO productDTO;
+
+    @Setup
+    public void setUp() {
+        productService = new ProductService();
+        LocalDateTime now = LocalDateTime.now();
+        product = new Product(42L, "Sản phẩm mẫu", new BigDecimal("199000.00"), new BigDecimal("149000.00"),
+                "https://example.com/img/42.png", "Mô tả sản phẩm mẫu ".repeat(10), "Danh mục 1", "ACTIVE",
+                now, now);
+        product.setVersion(3L);
+        productDTO = productService.convertToDTO(product);
+    }
+
+    @Benchmark
+    public ProductDTO convertToDTO() {
+        return productService.convertToDTO(product);
+    }
+
+    @Benchmark
+    public Product convertToEntity() {
+        return productService.convertToEntity(productDTO);
+    }
+}
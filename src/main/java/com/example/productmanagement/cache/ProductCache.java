@@ -0,0 +1,259 @@
+package com.example.productmanagement.cache;
+
+import com.example.productmanagement.dto.ProductDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bộ nhớ đệm sản phẩm trong tiến trình (read-through) đặt trước
+ * {@code ProductRepository.findById}.
+ * Giới hạn theo số lượng phần tử (LRU) và thời gian sống (TTL).
+ * Bộ nhớ đệm giữ bản sao riêng của DTO và trả về bản sao cho mỗi lời gọi, nên người gọi
+ * sửa DTO nhận được không làm hỏng phần tử đang được chia sẻ.
+ * Các phần tử được chia theo ID vào nhiều phân đoạn, mỗi phân đoạn có khóa và giới hạn LRU riêng
+ * ({@code max-size} chia đều), để các lần đọc trúng bộ nhớ đệm không tranh nhau một khóa chung.
+ * Khi ghi, phần tử có {@code version} cao hơn được giữ lại, nên các hook sau commit chạy
+ * lệch thứ tự không ghi đè bản mới bằng bản cũ.
+ */
+@Component
+public class ProductCache {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final Segment[] segments;
+
+    // Tăng sau mỗi lần ghi/xóa, dùng để bỏ qua kết quả đọc đã cũ khi nạp lại
+    private final AtomicLong writeEpoch = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public ProductCache(@Value("${product.cache.max-size:10000}") int maxSize,
+            @Value("${product.cache.ttl:PT5M}") Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        int count = Integer.highestOneBit(Math.max(1, Math.min(MAX_SEGMENTS, maxSize)));
+        int segmentSize = (Math.max(0, maxSize) + count - 1) / count;
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    /**
+     * Lấy sản phẩm từ bộ nhớ đệm.
+     *
+     * @param id ID của sản phẩm.
+     * @return Bản sao DTO của sản phẩm, hoặc {@code null} nếu không có hoặc đã hết hạn.
+     */
+    public ProductDTO get(Long id) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Segment segment = segmentFor(id);
+        segment.lock.lock();
+        try {
+            Entry entry = segment.entries.get(id);
+            if (entry != null && entry.isExpired(System.nanoTime())) {
+                segment.entries.remove(id);
+                evictions.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return new ProductDTO(entry.value);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Thời điểm ghi hiện tại. Gọi trước khi đọc từ cơ sở dữ liệu và truyền vào
+     * {@link #fill(ProductDTO, long)}.
+     *
+     * @return Giá trị epoch ghi hiện tại.
+     */
+    public long currentEpoch() {
+        return writeEpoch.get();
+    }
+
+    /**
+     * Nạp sản phẩm vừa đọc từ cơ sở dữ liệu vào bộ nhớ đệm.
+     * Bị bỏ qua nếu đã có thao tác ghi xảy ra kể từ {@code epoch}, để tránh ghi đè
+     * bằng dữ liệu cũ.
+     *
+     * @param product DTO của sản phẩm.
+     * @param epoch   Giá trị trả về từ {@link #currentEpoch()} trước khi đọc.
+     */
+    public void fill(ProductDTO product, long epoch) {
+        if (!isEnabled() || product == null || product.getId() == null) {
+            return;
+        }
+        Segment segment = segmentFor(product.getId());
+        segment.lock.lock();
+        try {
+            if (writeEpoch.get() != epoch) {
+                return;
+            }
+            store(segment, product);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Ghi sản phẩm vào bộ nhớ đệm sau khi tạo mới hoặc cập nhật.
+     * Nếu bộ nhớ đệm đang giữ phiên bản mới hơn (hook của lần ghi sau đã chạy trước),
+     * phần tử hiện có được giữ nguyên.
+     *
+     * @param product DTO của sản phẩm đã lưu.
+     */
+    public void put(ProductDTO product) {
+        if (!isEnabled() || product == null || product.getId() == null) {
+            return;
+        }
+        Segment segment = segmentFor(product.getId());
+        segment.lock.lock();
+        try {
+            writeEpoch.incrementAndGet();
+            store(segment, product);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Loại bỏ sản phẩm khỏi bộ nhớ đệm.
+     *
+     * @param id ID của sản phẩm.
+     */
+    public void evict(Long id) {
+        Segment segment = segmentFor(id);
+        segment.lock.lock();
+        try {
+            writeEpoch.incrementAndGet();
+            if (segment.entries.remove(id) != null) {
+                invalidations.increment();
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Xóa toàn bộ bộ nhớ đệm.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                writeEpoch.incrementAndGet();
+                invalidations.add(segment.entries.size());
+                segment.entries.clear();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Thống kê hoạt động của bộ nhớ đệm.
+     *
+     * @return Số lần trúng, trượt, bị loại bỏ và kích thước hiện tại.
+     */
+    public ProductCacheStats stats() {
+        int size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.entries.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return new ProductCacheStats(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(), size, maxSize);
+    }
+
+    private boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    private Segment segmentFor(Long id) {
+        return segments[Long.hashCode(id * 0x9E3779B97F4A7C15L) >>> 16 & (segments.length - 1)];
+    }
+
+    // Gọi khi đang giữ khóa của phân đoạn
+    private void store(Segment segment, ProductDTO product) {
+        long now = System.nanoTime();
+        Entry current = segment.entries.get(product.getId());
+        if (current != null && !current.isExpired(now) && isNewer(current.value, product)) {
+            return;
+        }
+        segment.entries.put(product.getId(), new Entry(new ProductDTO(product), now + ttlNanos));
+        if (segment.entries.size() > segment.maxSize) {
+            purgeExpired(segment, now);
+        }
+        Iterator<Map.Entry<Long, Entry>> it = segment.entries.entrySet().iterator();
+        while (segment.entries.size() > segment.maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    // Bản đang giữ có phiên bản cao hơn bản sắp ghi
+    private static boolean isNewer(ProductDTO cached, ProductDTO product) {
+        return cached.getVersion() != null && product.getVersion() != null
+                && cached.getVersion() > product.getVersion();
+    }
+
+    private void purgeExpired(Segment segment, long now) {
+        Iterator<Entry> it = segment.entries.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().isExpired(now)) {
+                it.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private static final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final int maxSize;
+
+        private Segment(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    private static final class Entry {
+        private final ProductDTO value;
+        private final long expiresAt;
+
+        private Entry(ProductDTO value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.productmanagement.cache;
+
+/**
+ * Thống kê của bộ nhớ đệm sản phẩm.
+ *
+ * @param hits          Số lần tìm thấy trong bộ nhớ đệm.
+ * @param misses        Số lần không tìm thấy (phải đọc cơ sở dữ liệu).
+ * @param evictions     Số phần tử bị loại bỏ do vượt kích thước hoặc hết hạn.
+ * @param invalidations Số phần tử bị loại bỏ do sản phẩm bị xóa.
+ * @param size          Số phần tử hiện tại.
+ * @param maxSize       Số phần tử tối đa.
+ */
+public record ProductCacheStats(long hits, long misses, long evictions, long invalidations, int size, int maxSize) {
+
+    /**
+     * Tỉ lệ trúng bộ nhớ đệm.
+     *
+     * @return Giá trị trong khoảng [0, 1].
+     */
+    public double hitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.productmanagement.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Bộ nhớ đệm tổng số sản phẩm theo bộ lọc.
+ * Giá trị là xấp xỉ: có thể lệch so với thực tế trong khoảng thời gian TTL,
+ * đổi lại không phải chạy COUNT(*) cho mỗi trang.
+ */
+@Component
+public class ProductCountCache {
+
+    private static final int MAX_ENTRIES = 1000;
+
+    private final long ttlNanos;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    public ProductCountCache(@Value("${product.count-cache.ttl:PT1M}") Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Lấy tổng số sản phẩm theo bộ lọc, đếm lại bằng {@code counter} nếu chưa có hoặc đã hết hạn.
+     * 
+     * @param name     Tên sản phẩm để lọc.
+     * @param minPrice Giá tối thiểu để lọc.
+     * @param maxPrice Giá tối đa để lọc.
+     * @param counter  Hàm đếm trên cơ sở dữ liệu.
+     * @return Tổng số sản phẩm (xấp xỉ).
+     */
+    public long get(String name, BigDecimal minPrice, BigDecimal maxPrice, LongSupplier counter) {
+        Key key = new Key(name, minPrice, maxPrice);
+        long now = System.nanoTime();
+        Entry entry = entries.get(key);
+        if (entry != null && now - entry.expiresAt < 0) {
+            return entry.count;
+        }
+        long count = counter.getAsLong();
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.clear();
+        }
+        entries.put(key, new Entry(count, now + ttlNanos));
+        return count;
+    }
+
+    /**
+     * Xóa toàn bộ giá trị đã lưu.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    private record Key(String name, BigDecimal minPrice, BigDecimal maxPrice) {
+    }
+
+    private record Entry(long count, long expiresAt) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.productmanagement.config;
+
+import com.example.productmanagement.cache.ProductCache;
+import com.example.productmanagement.feed.ProductChangeFeed;
+import com.example.productmanagement.search.ProductNameIndex;
+import com.example.productmanagement.search.ProductPriceIndex;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cấu hình số liệu giám sát (Micrometer), xuất qua {@code /actuator/prometheus}.
+ * <p>
+ * Các số liệu có sẵn từ Spring Boot: {@code http.server.requests} (theo endpoint),
+ * {@code spring.data.repository.invocations} (theo phương thức của repository),
+ * {@code hikaricp.connections.*} (pool kết nối) và {@code hibernate.*} (thống kê Hibernate).
+ * Cấu hình ở đây bổ sung số liệu cho các thao tác của dịch vụ ({@code @Timed}) và bộ nhớ đệm.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Cho phép dùng {@code @Timed} trên các bean (ví dụ {@code ProductService}).
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    /**
+     * Số liệu của bộ nhớ đệm sản phẩm, các chỉ mục trong bộ nhớ và luồng sự kiện.
+     */
+    @Bean
+    public MeterBinder productCacheMetrics(ProductCache productCache, ProductNameIndex productNameIndex,
+            ProductPriceIndex productPriceIndex, ProductChangeFeed productChangeFeed) {
+        return registry -> {
+            FunctionCounter.builder("product.cache.gets", productCache, cache -> cache.stats().hits())
+                    .tag("result", "hit")
+                    .description("Số lần đọc bộ nhớ đệm sản phẩm")
+                    .register(registry);
+            FunctionCounter.builder("product.cache.gets", productCache, cache -> cache.stats().misses())
+                    .tag("result", "miss")
+                    .description("Số lần đọc bộ nhớ đệm sản phẩm")
+                    .register(registry);
+            FunctionCounter.builder("product.cache.evictions", productCache, cache -> cache.stats().evictions())
+                    .description("Số phần tử bị loại do vượt kích thước hoặc hết hạn")
+                    .register(registry);
+            FunctionCounter.builder("product.cache.invalidations", productCache,
+                    cache -> cache.stats().invalidations())
+                    .description("Số phần tử bị loại do sản phẩm thay đổi hoặc bị xóa")
+                    .register(registry);
+            Gauge.builder("product.cache.size", productCache, cache -> cache.stats().size())
+                    .description("Số phần tử hiện tại trong bộ nhớ đệm sản phẩm")
+                    .register(registry);
+            Gauge.builder("product.search.index.size", productNameIndex, ProductNameIndex::size)
+                    .description("Số sản phẩm trong chỉ mục tìm kiếm theo tên")
+                    .register(registry);
+            Gauge.builder("product.price.index.size", productPriceIndex, ProductPriceIndex::size)
+                    .description("Số sản phẩm trong chỉ mục giá")
+                    .register(registry);
+            Gauge.builder("product.feed.subscribers", productChangeFeed, ProductChangeFeed::subscriberCount)
+                    .description("Số client đang nhận luồng sự kiện thay đổi sản phẩm")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.productmanagement.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Bật các tác vụ định kỳ ({@code @Scheduled}), ví dụ dọn dấu xóa sản phẩm hết hạn
+ * trong {@code ProductService}.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
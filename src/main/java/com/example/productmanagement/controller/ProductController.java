@@ -1,39 +1,243 @@
 package com.example.productmanagement.controller;
 
+import com.example.productmanagement.cache.ProductCacheStats;
+import com.example.productmanagement.dto.BulkDeleteResultDTO;
+import com.example.productmanagement.dto.BulkImportResultDTO;
+import com.example.productmanagement.dto.CursorPageDTO;
 import com.example.productmanagement.dto.ProductDTO;
-import com.example.productmanagement.service.ProductService;
+import com.example.productmanagement.dto.ProductDeltaDTO;
+import com.example.productmanagement.dto.ProductField;
+import com.example.productmanagement.dto.SliceDTO;
+import com.example.productmanagement.exception.InvalidRequestException;
 import com.example.productmanagement.exception.ResourceNotFoundException;
+import com.example.productmanagement.export.ProductExportFormat;
+import com.example.productmanagement.export.ProductExportWriter;
+import com.example.productmanagement.feed.ProductChangeFeed;
+import com.example.productmanagement.search.PriceHistogram;
+import com.example.productmanagement.search.ProductFacets;
+import com.example.productmanagement.service.ProductETags;
+import com.example.productmanagement.service.ProductService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_HISTOGRAM_BUCKETS = 1000;
+
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Lấy danh sách sản phẩm với tùy chọn lọc theo tên, khoảng giá.
+     * Với {@code view=summary}, chỉ trả về các cột hiển thị trên bảng (không có mô tả
+     * và ảnh); chi tiết đầy đủ lấy qua {@code GET /api/products/{id}} khi cần.
+     * Với {@code fields} (ví dụ {@code fields=id,price}), chỉ các trường đó được đọc từ cơ sở
+     * dữ liệu và trả về; tham số này được ưu tiên hơn {@code view}.
+     * Phản hồi chỉ chứa một trang ({@code size} mặc định 100, tối đa 1000) và không cho biết tổng số;
+     * client lấy các trang tiếp theo bằng {@code page} cho tới khi nhận được trang ngắn hơn {@code size}.
      * 
      * @param name     Tên sản phẩm để lọc.
      * @param minPrice Giá tối thiểu để lọc.
      * @param maxPrice Giá tối đa để lọc.
+     * @param page     Số trang.
+     * @param size     Kích thước trang (mặc định 100, tối đa 1000).
+     * @param view     Kiểu hiển thị: {@code full} (mặc định) hoặc {@code summary}.
+     * @param fields   Các trường cần trả về, phân tách bằng dấu phẩy (tùy chọn).
+     * @param request  Request hiện tại (dùng cho kiểm tra ETag).
      * @return Danh sách sản phẩm phù hợp với tiêu chí lọc.
      */
     @GetMapping
-    public ResponseEntity<List<ProductDTO>> getAllProducts(
+    public ResponseEntity<List<?>> getAllProducts(
             @RequestParam(required = false) String name,
-            @RequestParam(required = false) Double minPrice,
-            @RequestParam(required = false) Double maxPrice) {
-        List<ProductDTO> products = productService.getAllProducts(name, minPrice, maxPrice);
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(defaultValue = "full") String view,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        checkPage(page, size);
+        ProductListView listView = ProductListView.from(view);
+        Set<ProductField> selected = fields != null ? ProductField.parse(fields) : null;
+        if (request.checkNotModified(ProductETags.weak(productService.getListingETag()))) {
+            return null;
+        }
+        if (selected != null) {
+            return ResponseEntity.ok(productService.getProductFields(name, minPrice, maxPrice, page, size, selected));
+        }
+        List<?> products = switch (listView) {
+            case SUMMARY -> productService.getProductSummaries(name, minPrice, maxPrice, page, size).getContent();
+            case FULL -> productService.getProductSlice(name, minPrice, maxPrice, page, size, false).getContent();
+        };
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * Tìm sản phẩm theo chuỗi con trong tên (không phân biệt hoa thường) bằng chỉ mục
+     * trong bộ nhớ, tùy chọn lọc theo khoảng giá.
+     * Thứ tự tên của chỉ mục (viết thường, so theo mã ký tự) có thể khác thứ tự theo collation của cơ sở
+     * dữ liệu dùng khi chỉ mục chưa sẵn sàng (ngay sau khi khởi động), nên client không nên ghép các trang
+     * lấy trước và sau thời điểm đó.
+     * 
+     * @param name     Chuỗi con của tên sản phẩm.
+     * @param minPrice Giá tối thiểu để lọc.
+     * @param maxPrice Giá tối đa để lọc.
+     * @param page     Số trang.
+     * @param size     Kích thước trang.
+     * @param request  Request hiện tại (dùng cho kiểm tra ETag).
+     * @return Trang sản phẩm khớp theo thứ tự tên.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Page<ProductDTO>> searchProducts(
+            @RequestParam String name,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+        checkPage(page, size);
+        if (request.checkNotModified(ProductETags.weak(productService.getListingETag()))) {
+            return null;
+        }
+        return ResponseEntity.ok(productService.searchProducts(name, minPrice, maxPrice, page, size));
+    }
+
+    /**
+     * Lấy một lát sản phẩm (không kèm truy vấn đếm) với tùy chọn lọc theo tên, khoảng giá.
+     * 
+     * @param name      Tên sản phẩm để lọc.
+     * @param minPrice  Giá tối thiểu để lọc.
+     * @param maxPrice  Giá tối đa để lọc.
+     * @param page      Số trang.
+     * @param size      Kích thước trang.
+     * @param withTotal Có kèm tổng số xấp xỉ hay không.
+     * @param request   Request hiện tại (dùng cho kiểm tra ETag).
+     * @return Lát sản phẩm và cờ cho biết còn trang tiếp theo.
+     */
+    @GetMapping("/slice")
+    public ResponseEntity<SliceDTO<ProductDTO>> getProductSlice(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            WebRequest request) {
+        checkPage(page, size);
+        if (request.checkNotModified(ProductETags.weak(productService.getListingETag()))) {
+            return null;
+        }
+        return ResponseEntity.ok(productService.getProductSlice(name, minPrice, maxPrice, page, size, withTotal));
+    }
+
+    /**
+     * Lấy danh sách sản phẩm theo con trỏ (keyset), chi phí mỗi trang không phụ
+     * thuộc vào vị trí trang.
+     * 
+     * @param name     Tên sản phẩm để lọc.
+     * @param minPrice Giá tối thiểu để lọc.
+     * @param maxPrice Giá tối đa để lọc.
+     * @param after    Con trỏ {@code nextCursor} của trang trước (bỏ trống cho trang đầu).
+     * @param size     Kích thước trang.
+     * @param request  Request hiện tại (dùng cho kiểm tra ETag).
+     * @return Trang sản phẩm kèm con trỏ của trang tiếp theo.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDTO<ProductDTO>> scrollProducts(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+        checkPageSize(size);
+        if (request.checkNotModified(ProductETags.weak(productService.getListingETag()))) {
+            return null;
+        }
+        return ResponseEntity.ok(productService.getProductsAfter(name, minPrice, maxPrice, after, size));
+    }
+
+    /**
+     * Lấy các sản phẩm đã thay đổi và ID các sản phẩm đã bị xóa kể từ lần đồng bộ trước,
+     * để client đồng bộ tăng dần thay vì tải lại toàn bộ danh mục.
+     * Lần đầu gửi {@code since}; các lần sau gửi lại {@code nextCursor} trong tham số {@code cursor}.
+     * Trả về 410 nếu mốc đồng bộ cũ hơn thời gian giữ dấu xóa; khi đó client phải tải lại toàn bộ.
+     * 
+     * @param since  Thời điểm đồng bộ gần nhất (ISO-8601, ví dụ {@code 2024-05-01T00:00:00}).
+     * @param cursor Con trỏ {@code nextCursor} của lần đồng bộ trước.
+     * @param limit  Số sản phẩm thay đổi và số ID bị xóa tối đa mỗi loại.
+     * @return Các thay đổi kèm con trỏ cho lần đồng bộ tiếp theo.
+     */
+    @GetMapping("/delta")
+    public ResponseEntity<ProductDeltaDTO> getDelta(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "500") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return ResponseEntity.ok(productService.getDelta(since, cursor, limit));
+    }
+
+    /**
+     * Xuất toàn bộ danh mục sản phẩm dạng luồng (NDJSON hoặc CSV), tùy chọn lọc
+     * theo tên, khoảng giá và danh mục.
+     * 
+     * @param format   Định dạng xuất: {@code ndjson} (mặc định) hoặc {@code csv}.
+     * @param name     Tên sản phẩm để lọc.
+     * @param minPrice Giá tối thiểu để lọc.
+     * @param maxPrice Giá tối đa để lọc.
+     * @param category Danh mục để lọc.
+     * @return Nội dung xuất được ghi dần ra response.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String category) {
+        ProductExportFormat exportFormat = ProductExportFormat.from(format);
+        StreamingResponseBody body = out -> {
+            try (ProductExportWriter writer = new ProductExportWriter(exportFormat, out, objectMapper)) {
+                productService.exportProducts(name, minPrice, maxPrice, category, writer::write);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"products." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     /**
      * Thêm mới một sản phẩm.
      * 
@@ -46,45 +250,217 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(addedProduct);
     }
 
+    /**
+     * Nhập hàng loạt sản phẩm mới. Nội dung có thể là một mảng JSON hoặc NDJSON
+     * (mỗi dòng một sản phẩm); dữ liệu được đọc dần nên không phải giữ toàn bộ trong bộ nhớ.
+     * 
+     * @param body Nội dung request.
+     * @return Kết quả của từng phần đã ghi.
+     * @throws IOException Nếu không đọc được nội dung request.
+     */
+    @PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson" })
+    public ResponseEntity<BulkImportResultDTO> importProducts(InputStream body) throws IOException {
+        try (MappingIterator<ProductDTO> products = objectMapper.readerFor(ProductDTO.class).readValues(body)) {
+            return ResponseEntity.ok(productService.importProducts(products));
+        }
+    }
+
     /**
      * Cập nhật thông tin của một sản phẩm.
      * 
      * @param id         ID của sản phẩm cần cập nhật.
      * @param productDTO Thông tin sản phẩm đã được cập nhật.
+     * @param ifMatch    ETag mà client mong đợi (tùy chọn).
      * @return Sản phẩm đã được cập nhật.
      */
     @PutMapping("/{id}")
     public ResponseEntity<ProductDTO> updateProduct(
-            @PathVariable Long id, @RequestBody ProductDTO productDTO) {
+            @PathVariable Long id, @RequestBody ProductDTO productDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = productService.checkIfMatch(id, ifMatch);
+        if (expectedVersion != null && productDTO.getVersion() == null) {
+            productDTO.setVersion(expectedVersion);
+        }
         ProductDTO updatedProduct = productService.updateProduct(id, productDTO);
         return ResponseEntity.ok(updatedProduct);
     }
 
+    /**
+     * Cập nhật một phần thông tin của sản phẩm: chỉ các trường có trong nội dung
+     * request được thay đổi. Có thể gửi kèm {@code version} để kiểm tra khóa lạc quan.
+     * 
+     * @param id      ID của sản phẩm cần cập nhật.
+     * @param changes Các trường cần thay đổi và giá trị mới.
+     * @param ifMatch ETag mà client mong đợi (tùy chọn).
+     * @return Sản phẩm đã được cập nhật.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<ProductDTO> patchProduct(
+            @PathVariable Long id, @RequestBody Map<String, Object> changes,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = productService.checkIfMatch(id, ifMatch);
+        if (expectedVersion != null) {
+            changes.putIfAbsent("version", expectedVersion);
+        }
+        ProductDTO patchedProduct = productService.patchProduct(id, changes);
+        return ResponseEntity.ok(patchedProduct);
+    }
+
     /**
      * Xóa một sản phẩm dựa trên ID.
      * 
-     * @param id ID của sản phẩm cần xóa.
+     * @param id      ID của sản phẩm cần xóa.
+     * @param ifMatch ETag mà client mong đợi (tùy chọn).
      * @return HTTP status 204 (No Content) nếu thành công.
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
-        productService.deleteProduct(id);
+    public ResponseEntity<Void> deleteProduct(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        productService.deleteProduct(id, productService.checkIfMatch(id, ifMatch));
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Xóa hàng loạt sản phẩm theo danh sách ID.
+     * 
+     * @param ids Danh sách ID của các sản phẩm cần xóa.
+     * @return Số ID yêu cầu và số sản phẩm đã xóa.
+     */
+    @DeleteMapping
+    public ResponseEntity<BulkDeleteResultDTO> deleteProducts(@RequestBody List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidRequestException("At least one product ID is required");
+        }
+        return ResponseEntity.ok(productService.deleteProducts(ids));
+    }
+
     /**
      * Lấy chi tiết của một sản phẩm dựa trên ID.
      * 
-     * @param id ID của sản phẩm cần lấy thông tin.
+     * Trả về 304 Not Modified (không đọc và không tuần tự hóa sản phẩm) nếu
+     * {@code If-None-Match} khớp với ETag hiện tại. Chỉ request có điều kiện mới đọc riêng các cột
+     * phiên bản; request thường đọc sản phẩm một lần và lấy ETag từ chính DTO đó.
+     * 
+     * @param id      ID của sản phẩm cần lấy thông tin.
+     * @param fields  Các trường cần trả về, phân tách bằng dấu phẩy (tùy chọn, mặc định tất cả).
+     * @param request Request hiện tại (dùng cho kiểm tra ETag).
      * @return Sản phẩm với ID đã cho.
      * @throws ResourceNotFoundException Nếu sản phẩm không tìm thấy.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
+    public ResponseEntity<?> getProductById(@PathVariable Long id,
+            @RequestParam(required = false) String fields, WebRequest request) {
+        Set<ProductField> selected = fields != null ? ProductField.parse(fields) : null;
+        boolean conditional = request.getHeader(HttpHeaders.IF_NONE_MATCH) != null;
+        if ((conditional || selected != null)
+                && request.checkNotModified(ProductETags.weak(productService.getProductETag(id)))) {
+            return null;
+        }
+        if (selected != null) {
+            return ResponseEntity.ok(productService.getProductFields(id, selected));
+        }
         ProductDTO product = productService.getProductById(id);
         if (product == null) {
             throw new ResourceNotFoundException("Product not found with ID: " + id);
         }
-        return ResponseEntity.ok(product);
+        if (conditional) {
+            // ETag đã được checkNotModified ghi vào phản hồi
+            return ResponseEntity.ok(product);
+        }
+        return ResponseEntity.ok()
+                .eTag(ProductETags.weak(ProductETags.of(product.getId(), product.getVersion(), product.getUpdatedAt())))
+                .body(product);
+    }
+
+    /**
+     * Lấy thống kê của bộ nhớ đệm sản phẩm.
+     * 
+     * @return Số lần trúng, trượt và bị loại bỏ của bộ nhớ đệm.
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ProductCacheStats> getCacheStats() {
+        return ResponseEntity.ok(productService.getCacheStats());
+    }
+
+    /**
+     * Đếm số sản phẩm theo khoảng giá.
+     * 
+     * @param minPrice Giá tối thiểu (tùy chọn).
+     * @param maxPrice Giá tối đa (tùy chọn).
+     * @return Số sản phẩm có giá trong khoảng.
+     */
+    @GetMapping("/prices/count")
+    public ResponseEntity<Long> countProductsByPrice(@RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice) {
+        return ResponseEntity.ok(productService.countProductsByPrice(minPrice, maxPrice));
+    }
+
+    /**
+     * Lấy phân bố số sản phẩm theo các khoảng giá bằng nhau.
+     * 
+     * @param minPrice Giá tối thiểu (tùy chọn).
+     * @param maxPrice Giá tối đa (tùy chọn).
+     * @param buckets  Số khoảng giá.
+     * @return Histogram giá.
+     */
+    @GetMapping("/prices/histogram")
+    public ResponseEntity<PriceHistogram> getPriceHistogram(@RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "20") int buckets) {
+        if (buckets < 1 || buckets > MAX_HISTOGRAM_BUCKETS) {
+            throw new InvalidRequestException("Buckets must be between 1 and " + MAX_HISTOGRAM_BUCKETS);
+        }
+        return ResponseEntity.ok(productService.getPriceHistogram(minPrice, maxPrice, buckets));
+    }
+
+    /**
+     * Nhận luồng sự kiện thay đổi sản phẩm (Server-Sent Events): {@code created}, {@code updated},
+     * {@code deleted}, {@code bulk_created} sau mỗi phần của lần nhập hàng loạt, và {@code reset} khi client
+     * đã lỡ quá nhiều sự kiện; với hai sự kiện cuối, client tải lại danh sách.
+     * Khi kết nối lại, trình duyệt tự gửi header {@code Last-Event-ID} để nhận tiếp các sự kiện đã lỡ.
+     * 
+     * @param lastEventId      ID sự kiện cuối cùng đã nhận (header, tùy chọn).
+     * @param lastEventIdParam ID sự kiện cuối cùng đã nhận (tham số, cho lần kết nối đầu tiên).
+     * @return Emitter SSE.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(value = "lastEventId", required = false) Long lastEventIdParam) {
+        return productChangeFeed.subscribe(lastEventId != null ? lastEventId : lastEventIdParam);
+    }
+
+    /**
+     * Lấy số sản phẩm theo danh mục, trạng thái và khoảng giá.
+     * 
+     * @param name Chỉ tính các sản phẩm có tên chứa chuỗi này (tùy chọn).
+     * @return Các bộ đếm facet.
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<ProductFacets> getFacets(@RequestParam(required = false) String name) {
+        return ResponseEntity.ok(productService.getFacets(name));
+    }
+
+    /**
+     * Dựng lại bộ đếm facet từ cơ sở dữ liệu.
+     * 
+     * @return Phản hồi không có nội dung khi đã dựng xong.
+     */
+    @PostMapping("/facets/rebuild")
+    public ResponseEntity<Void> rebuildFacets() {
+        productService.rebuildFacets();
+        return ResponseEntity.noContent().build();
+    }
+
+    private static void checkPage(int page, int size) {
+        if (page < 0) {
+            throw new InvalidRequestException("Page index must not be negative");
+        }
+        checkPageSize(size);
+    }
+
+    private static void checkPageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
     }
 }
@@ -0,0 +1,25 @@
+package com.example.productmanagement.controller;
+
+import com.example.productmanagement.exception.InvalidRequestException;
+
+import java.util.Locale;
+
+/**
+ * Kiểu hiển thị của danh sách sản phẩm (tham số {@code view}).
+ */
+enum ProductListView {
+
+    // Đầy đủ mọi trường của ProductDTO
+    FULL,
+
+    // Chỉ các cột hẹp của ProductSummaryDTO (không có mô tả và ảnh)
+    SUMMARY;
+
+    static ProductListView from(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unsupported view: " + value);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.productmanagement.dto;
+
+/**
+ * Kết quả của một lần xóa sản phẩm hàng loạt.
+ */
+public class BulkDeleteResultDTO {
+
+    private int requested;
+    private int deleted;
+
+    // Constructor không tham số
+    public BulkDeleteResultDTO() {
+    }
+
+    // Constructor với tất cả các tham số
+    public BulkDeleteResultDTO(int requested, int deleted) {
+        this.requested = requested;
+        this.deleted = deleted;
+    }
+
+    // Getters và Setters
+
+    public int getRequested() {
+        return requested;
+    }
+
+    public void setRequested(int requested) {
+        this.requested = requested;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(int deleted) {
+        this.deleted = deleted;
+    }
+}
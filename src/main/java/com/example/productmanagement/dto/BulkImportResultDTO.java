@@ -0,0 +1,77 @@
+package com.example.productmanagement.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kết quả của một lần nhập sản phẩm hàng loạt.
+ */
+public class BulkImportResultDTO {
+
+    private long received;
+    private long created;
+    private long failed;
+    private long elapsedMillis;
+    private List<ImportChunkResultDTO> chunks = new ArrayList<>();
+
+    // Constructor không tham số
+    public BulkImportResultDTO() {
+    }
+
+    // Getters và Setters
+
+    public long getReceived() {
+        return received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<ImportChunkResultDTO> getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(List<ImportChunkResultDTO> chunks) {
+        this.chunks = chunks;
+    }
+
+    /**
+     * Ghi nhận kết quả của một phần.
+     * 
+     * @param chunk Kết quả của phần vừa xử lý.
+     */
+    public void addChunk(ImportChunkResultDTO chunk) {
+        chunks.add(chunk);
+        received += chunk.getSize();
+        if (chunk.isSucceeded()) {
+            created += chunk.getSize();
+        } else {
+            failed += chunk.getSize();
+        }
+    }
+}
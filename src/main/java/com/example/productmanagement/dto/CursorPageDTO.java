@@ -0,0 +1,63 @@
+package com.example.productmanagement.dto;
+
+import java.util.List;
+
+/**
+ * Một trang kết quả phân trang theo con trỏ (keyset).
+ * Trang tiếp theo được lấy bằng cách gửi lại {@code nextCursor} trong tham số {@code after}.
+ * 
+ * @param <T> Kiểu phần tử.
+ */
+public class CursorPageDTO<T> {
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    // Constructor không tham số
+    public CursorPageDTO() {
+    }
+
+    // Constructor với tất cả các tham số
+    public CursorPageDTO(List<T> content, int size, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters và Setters
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.productmanagement.dto;
+
+/**
+ * Kết quả của một phần (chunk) trong lần nhập hàng loạt.
+ * Mỗi phần được ghi trong một transaction riêng.
+ */
+public class ImportChunkResultDTO {
+
+    private int chunk;
+    private long offset;
+    private int size;
+    private boolean succeeded;
+    private String error;
+
+    // Constructor không tham số
+    public ImportChunkResultDTO() {
+    }
+
+    // Constructor với tất cả các tham số
+    public ImportChunkResultDTO(int chunk, long offset, int size, boolean succeeded, String error) {
+        this.chunk = chunk;
+        this.offset = offset;
+        this.size = size;
+        this.succeeded = succeeded;
+        this.error = error;
+    }
+
+    // Getters và Setters
+
+    public int getChunk() {
+        return chunk;
+    }
+
+    public void setChunk(int chunk) {
+        this.chunk = chunk;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(boolean succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
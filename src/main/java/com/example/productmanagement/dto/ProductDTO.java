@@ -17,6 +17,9 @@ public class ProductDTO {
     private String description;
     private String category;
     private String status;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long version;
 
     // Constructor không tham số
     public ProductDTO() {
@@ -35,6 +38,22 @@ public class ProductDTO {
         this.status = status;
     }
 
+    // Constructor đầy đủ, dùng cho truy vấn projection "select new ProductDTO(...)"
+    public ProductDTO(Long id, String name, BigDecimal price, BigDecimal discountPrice, String imageUrl,
+            String description, String category, String status, LocalDateTime createdAt, LocalDateTime updatedAt,
+            Long version) {
+        this(id, name, price, discountPrice, imageUrl, description, category, status);
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
+    }
+
+    // Constructor sao chép, dùng khi trả DTO đang được chia sẻ (bộ nhớ đệm, single-flight) cho người gọi
+    public ProductDTO(ProductDTO other) {
+        this(other.id, other.name, other.price, other.discountPrice, other.imageUrl, other.description,
+                other.category, other.status, other.createdAt, other.updatedAt, other.version);
+    }
+
     // Getters và Setters
 
     public Long getId() {
@@ -101,6 +120,30 @@ public class ProductDTO {
         this.status = status;
     }
 
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "ProductDTO{" +
@@ -112,26 +155,9 @@ public class ProductDTO {
                 ", description='" + description + '\'' +
                 ", category='" + category + '\'' +
                 ", status='" + status + '\'' +
+                ", createdAt=" + createdAt +
+                ", updatedAt=" + updatedAt +
+                ", version=" + version +
                 '}';
     }
-
-    public void setCreatedAt(LocalDateTime createdAt) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'setCreatedAt'");
-    }
-
-    public void setUpdatedAt(LocalDateTime updatedAt) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'setUpdatedAt'");
-    }
-
-    public LocalDateTime getUpdatedAt() {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'getUpdatedAt'");
-    }
-
-    public LocalDateTime getCreatedAt() {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'getCreatedAt'");
-    }
 }
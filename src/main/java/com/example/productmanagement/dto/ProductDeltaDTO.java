@@ -0,0 +1,76 @@
+package com.example.productmanagement.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Các thay đổi của danh mục sản phẩm kể từ lần đồng bộ trước.
+ * Client áp dụng {@code changed} (thêm hoặc thay thế theo ID) và {@code deleted} (xóa theo ID),
+ * rồi gửi lại {@code nextCursor} trong lần đồng bộ tiếp theo. Khi {@code hasMore} là
+ * {@code true}, client nên gọi lại ngay với {@code nextCursor} để lấy phần còn lại.
+ */
+public class ProductDeltaDTO {
+
+    private List<ProductDTO> changed;
+    private List<Long> deleted;
+    private boolean hasMore;
+    private String nextCursor;
+    private LocalDateTime until;
+
+    // Constructor không tham số
+    public ProductDeltaDTO() {
+    }
+
+    // Constructor với tất cả các tham số
+    public ProductDeltaDTO(List<ProductDTO> changed, List<Long> deleted, boolean hasMore, String nextCursor,
+            LocalDateTime until) {
+        this.changed = changed;
+        this.deleted = deleted;
+        this.hasMore = hasMore;
+        this.nextCursor = nextCursor;
+        this.until = until;
+    }
+
+    // Getters và Setters
+
+    public List<ProductDTO> getChanged() {
+        return changed;
+    }
+
+    public void setChanged(List<ProductDTO> changed) {
+        this.changed = changed;
+    }
+
+    public List<Long> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<Long> deleted) {
+        this.deleted = deleted;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    // Mốc thời gian mà dữ liệu đã được đồng bộ tới khi hasMore là false
+    public LocalDateTime getUntil() {
+        return until;
+    }
+
+    public void setUntil(LocalDateTime until) {
+        this.until = until;
+    }
+}
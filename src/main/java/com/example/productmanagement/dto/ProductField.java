@@ -0,0 +1,95 @@
+package com.example.productmanagement.dto;
+
+import com.example.productmanagement.exception.InvalidRequestException;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Các trường của {@link ProductDTO} có thể chọn qua tham số {@code fields}.
+ * Tên trường trùng với tên thuộc tính của entity {@code Product}, nên cũng dùng được
+ * để chọn cột trong truy vấn.
+ */
+public enum ProductField {
+
+    ID("id", ProductDTO::getId),
+    NAME("name", ProductDTO::getName),
+    PRICE("price", ProductDTO::getPrice),
+    DISCOUNT_PRICE("discountPrice", ProductDTO::getDiscountPrice),
+    IMAGE_URL("imageUrl", ProductDTO::getImageUrl),
+    DESCRIPTION("description", ProductDTO::getDescription),
+    CATEGORY("category", ProductDTO::getCategory),
+    STATUS("status", ProductDTO::getStatus),
+    CREATED_AT("createdAt", ProductDTO::getCreatedAt),
+    UPDATED_AT("updatedAt", ProductDTO::getUpdatedAt),
+    VERSION("version", ProductDTO::getVersion);
+
+    private static final Map<String, ProductField> BY_NAME = new LinkedHashMap<>();
+
+    static {
+        for (ProductField field : values()) {
+            BY_NAME.put(field.fieldName, field);
+        }
+    }
+
+    private final String fieldName;
+    private final Function<ProductDTO, Object> getter;
+
+    ProductField(String fieldName, Function<ProductDTO, Object> getter) {
+        this.fieldName = fieldName;
+        this.getter = getter;
+    }
+
+    /**
+     * Tên trường trong JSON (và tên thuộc tính của entity).
+     * 
+     * @return Tên trường.
+     */
+    public String fieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Phân tích danh sách trường dạng {@code "id,name,price"}.
+     * Trường {@code id} luôn được chọn (đứng đầu) để client nhận diện được sản phẩm.
+     * 
+     * @param fields Danh sách tên trường, phân tách bằng dấu phẩy.
+     * @return Các trường theo thứ tự yêu cầu.
+     * @throws InvalidRequestException Nếu có trường không tồn tại.
+     */
+    public static Set<ProductField> parse(String fields) {
+        Set<ProductField> result = new LinkedHashSet<>();
+        result.add(ID);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            ProductField field = BY_NAME.get(trimmed);
+            if (field == null) {
+                throw new InvalidRequestException("Unknown field: " + trimmed + ", supported fields: "
+                        + String.join(",", BY_NAME.keySet()));
+            }
+            result.add(field);
+        }
+        return result;
+    }
+
+    /**
+     * Chỉ giữ lại các trường đã chọn của một sản phẩm.
+     * 
+     * @param product DTO của sản phẩm.
+     * @param fields  Các trường cần giữ.
+     * @return Bản đồ tên trường → giá trị, theo thứ tự của {@code fields}.
+     */
+    public static Map<String, Object> project(ProductDTO product, Set<ProductField> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (ProductField field : fields) {
+            values.put(field.fieldName, field.getter.apply(product));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.productmanagement.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO rút gọn của sản phẩm cho màn hình danh sách.
+ * Không chứa mô tả và ảnh (các cột lớn); client lấy chúng khi mở chi tiết sản phẩm.
+ */
+public class ProductSummaryDTO {
+
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private BigDecimal discountPrice;
+    private String category;
+    private String status;
+
+    // Constructor không tham số
+    public ProductSummaryDTO() {
+    }
+
+    // Constructor với tất cả các tham số, dùng cho truy vấn projection "select new ProductSummaryDTO(...)"
+    public ProductSummaryDTO(Long id, String name, BigDecimal price, BigDecimal discountPrice, String category,
+            String status) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.discountPrice = discountPrice;
+        this.category = category;
+        this.status = status;
+    }
+
+    // Constructor sao chép, dùng khi trả DTO đang được chia sẻ (single-flight) cho người gọi
+    public ProductSummaryDTO(ProductSummaryDTO other) {
+        this(other.id, other.name, other.price, other.discountPrice, other.category, other.status);
+    }
+
+    // Getters và Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public BigDecimal getDiscountPrice() {
+        return discountPrice;
+    }
+
+    public void setDiscountPrice(BigDecimal discountPrice) {
+        this.discountPrice = discountPrice;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductSummaryDTO{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", price=" + price +
+                ", discountPrice=" + discountPrice +
+                ", category='" + category + '\'' +
+                ", status='" + status + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.productmanagement.dto;
+
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Một trang kết quả không kèm tổng số chính xác.
+ * Chỉ cho biết còn trang tiếp theo hay không; tổng số ({@code approximateTotal})
+ * là tùy chọn và có thể xấp xỉ.
+ * 
+ * @param <T> Kiểu phần tử.
+ */
+public class SliceDTO<T> {
+
+    private List<T> content;
+    private int page;
+    private int size;
+    private boolean hasNext;
+    private Long approximateTotal;
+
+    // Constructor không tham số
+    public SliceDTO() {
+    }
+
+    // Constructor với tất cả các tham số
+    public SliceDTO(List<T> content, int page, int size, boolean hasNext, Long approximateTotal) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.approximateTotal = approximateTotal;
+    }
+
+    /**
+     * Sao chép lát kết quả, sao chép từng phần tử bằng {@code copier}.
+     * 
+     * @param copier Hàm sao chép một phần tử.
+     * @return Lát kết quả mới.
+     */
+    public SliceDTO<T> copy(UnaryOperator<T> copier) {
+        return new SliceDTO<>(content == null ? null : content.stream().map(copier).toList(), page, size, hasNext,
+                approximateTotal);
+    }
+
+    // Getters và Setters
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public Long getApproximateTotal() {
+        return approximateTotal;
+    }
+
+    public void setApproximateTotal(Long approximateTotal) {
+        this.approximateTotal = approximateTotal;
+    }
+}
@@ -2,24 +2,50 @@ package com.example.productmanagement.entity;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 /**
  * Entity cho bảng sản phẩm.
  * Ánh xạ các thuộc tính của bảng sản phẩm trong cơ sở dữ liệu.
+ * Câu lệnh UPDATE chỉ chứa các cột đã thay đổi ({@link DynamicUpdate}).
+ * Được lưu trong second-level cache của Hibernate (vùng {@code product}) cho các thao tác ghi
+ * (PUT/PATCH đọc entity theo ID); đường đọc chi tiết dùng ProductCache và không nạp vào vùng này.
+ * Các câu lệnh DELETE/UPDATE dạng JPQL làm cả vùng mất hiệu lực.
  */
 @Entity
-@Table(name = "products")
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
+@Table(name = "products", indexes = {
+        // Phục vụ phân trang keyset theo (name, id)
+        @Index(name = "ix_products_name_id", columnList = "name, id"),
+        // Phục vụ ETag danh sách (max(updated_at)) và đồng bộ tăng dần (GET /api/products/delta)
+        @Index(name = "ix_products_updated_at", columnList = "updated_at")
+})
 public class Product {
 
+    // Dùng sequence (pooled) thay cho IDENTITY để Hibernate có thể gom INSERT thành JDBC batch.
+    // allocationSize phải bằng INCREMENT BY của products_seq (xem products-sequence.sql).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name", nullable = false)
@@ -49,6 +75,12 @@ public class Product {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Khóa lạc quan: tăng sau mỗi lần cập nhật
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Constructor không tham số
     public Product() {
     }
@@ -64,8 +96,25 @@ public class Product {
         this.description = description;
         this.category = category;
         this.status = status;
-        this.createdAt = createdAt;
-        this.updatedAt = updatedAt;
+        this.createdAt = toColumnPrecision(createdAt);
+        this.updatedAt = toColumnPrecision(updatedAt);
+    }
+
+    // Gán thời điểm tạo/cập nhật cho sản phẩm mới nếu chưa có
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = toColumnPrecision(LocalDateTime.now());
+        }
+        if (updatedAt == null) {
+            updatedAt = createdAt;
+        }
+    }
+
+    // Cột timestamp lưu tới micro giây và làm tròn phần lẻ; cắt bớt trước để bản sao trong bộ nhớ đệm
+    // (và ETag tạo từ nó) giống hệt giá trị đọc lại từ cơ sở dữ liệu
+    private static LocalDateTime toColumnPrecision(LocalDateTime time) {
+        return time == null ? null : time.truncatedTo(ChronoUnit.MICROS);
     }
 
     // Getters và Setters
@@ -139,7 +188,7 @@ public class Product {
     }
 
     public void setCreatedAt(LocalDateTime createdAt) {
-        this.createdAt = createdAt;
+        this.createdAt = toColumnPrecision(createdAt);
     }
 
     public LocalDateTime getUpdatedAt() {
@@ -147,7 +196,15 @@ public class Product {
     }
 
     public void setUpdatedAt(LocalDateTime updatedAt) {
-        this.updatedAt = updatedAt;
+        this.updatedAt = toColumnPrecision(updatedAt);
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
     }
 
     @Override
@@ -163,6 +220,7 @@ public class Product {
                 ", status='" + status + '\'' +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
+                ", version=" + version +
                 '}';
     }
 }
@@ -0,0 +1,62 @@
+package com.example.productmanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Entity cho bảng bộ đếm phiên bản danh mục sản phẩm (một dòng duy nhất).
+ * Mọi transaction tạo, sửa hoặc xóa sản phẩm tăng bộ đếm ngay trước khi commit. Khóa dòng giữ các
+ * transaction ghi nối tiếp nhau ở bước này, nên giá trị đã commit tăng đúng theo thứ tự commit
+ * (khác với {@code updatedAt}, lấy từ đồng hồ ứng dụng trước khi commit).
+ */
+@Entity
+@Table(name = "product_catalog_version")
+public class ProductCatalogVersion {
+
+    // ID của dòng duy nhất trong bảng
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    // Constructor không tham số
+    public ProductCatalogVersion() {
+    }
+
+    // Constructor với tất cả các tham số
+    public ProductCatalogVersion(Integer id, long version) {
+        this.id = id;
+        this.version = version;
+    }
+
+    // Getters và Setters
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductCatalogVersion{" +
+                "id=" + id +
+                ", version=" + version +
+                '}';
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.productmanagement.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Entity cho bảng dấu xóa sản phẩm.
+ * Mỗi sản phẩm bị xóa để lại một dòng (ID, thời điểm xóa) để client đồng bộ tăng dần
+ * biết sản phẩm nào đã bị xóa. Dòng được giữ trong {@code product.delta.tombstone-retention}
+ * rồi bị dọn định kỳ.
+ */
+@Entity
+@Table(name = "product_tombstones", indexes = {
+        // Phục vụ đọc dấu xóa theo (deleted_at, product_id) và dọn dấu xóa hết hạn
+        @Index(name = "ix_product_tombstones_deleted_at", columnList = "deleted_at, product_id")
+})
+public class ProductTombstone {
+
+    // ID của sản phẩm đã xóa (ID sinh từ sequence nên không bị dùng lại)
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    // Constructor không tham số
+    public ProductTombstone() {
+    }
+
+    // Constructor với tất cả các tham số
+    public ProductTombstone(Long productId, LocalDateTime deletedAt) {
+        this.productId = productId;
+        this.deletedAt = deletedAt;
+    }
+
+    // Getters và Setters
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductTombstone{" +
+                "productId=" + productId +
+                ", deletedAt=" + deletedAt +
+                '}';
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.productmanagement.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Ngoại lệ khi tham số yêu cầu không hợp lệ.
+ * Được sử dụng để trả về mã lỗi 400 Bad Request.
+ */
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidRequestException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor với thông điệp lỗi.
+     * 
+     * @param message Thông điệp lỗi.
+     */
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructor với thông điệp lỗi và nguyên nhân.
+     * 
+     * @param message Thông điệp lỗi.
+     * @param cause   Nguyên nhân của lỗi.
+     */
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
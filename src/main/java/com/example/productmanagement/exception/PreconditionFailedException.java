@@ -0,0 +1,23 @@
+package com.example.productmanagement.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Ngoại lệ khi điều kiện của request (ví dụ {@code If-Match}) không thỏa mãn.
+ * Được sử dụng để trả về mã lỗi 412 Precondition Failed.
+ */
+@ResponseStatus(value = HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor với thông điệp lỗi.
+     * 
+     * @param message Thông điệp lỗi.
+     */
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.productmanagement.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Ngoại lệ khi tài nguyên đã bị thay đổi bởi một yêu cầu khác.
+ * Được sử dụng để trả về mã lỗi 409 Conflict.
+ */
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class ResourceConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor với thông điệp lỗi.
+     * 
+     * @param message Thông điệp lỗi.
+     */
+    public ResourceConflictException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructor với thông điệp lỗi và nguyên nhân.
+     * 
+     * @param message Thông điệp lỗi.
+     * @param cause   Nguyên nhân của lỗi.
+     */
+    public ResourceConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
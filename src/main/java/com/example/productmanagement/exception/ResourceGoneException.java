@@ -0,0 +1,23 @@
+package com.example.productmanagement.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Ngoại lệ khi dữ liệu được yêu cầu không còn được lưu giữ.
+ * Được sử dụng để trả về mã lỗi 410 Gone.
+ */
+@ResponseStatus(value = HttpStatus.GONE)
+public class ResourceGoneException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor với thông điệp lỗi.
+     * 
+     * @param message Thông điệp lỗi.
+     */
+    public ResourceGoneException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.productmanagement.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Ngoại lệ khi dịch vụ tạm thời không thể xử lý yêu cầu.
+ * Được sử dụng để trả về mã lỗi 503 Service Unavailable.
+ */
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor với thông điệp lỗi.
+     * 
+     * @param message Thông điệp lỗi.
+     */
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.productmanagement.export;
+
+import com.example.productmanagement.exception.InvalidRequestException;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * Các định dạng xuất danh mục sản phẩm.
+ */
+public enum ProductExportFormat {
+
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ProductExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Chuyển tên định dạng (không phân biệt hoa thường) thành giá trị enum.
+     * 
+     * @param value Tên định dạng, ví dụ {@code ndjson} hoặc {@code csv}.
+     * @return Định dạng tương ứng.
+     * @throws InvalidRequestException Nếu định dạng không được hỗ trợ.
+     */
+    public static ProductExportFormat from(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unsupported export format: " + value);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.productmanagement.export;
+
+import com.example.productmanagement.dto.ProductDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Ghi lần lượt từng sản phẩm ra luồng đầu ra theo định dạng NDJSON hoặc CSV.
+ * Không giữ lại sản phẩm nào sau khi ghi, nên bộ nhớ sử dụng không phụ thuộc số dòng.
+ */
+public class ProductExportWriter implements AutoCloseable {
+
+    private static final String[] CSV_HEADER = { "id", "name", "price", "discountPrice", "imageUrl",
+            "description", "category", "status", "createdAt", "updatedAt" };
+
+    private final ProductExportFormat format;
+    private final Writer writer;
+    private final ObjectMapper objectMapper;
+    private long count;
+
+    public ProductExportWriter(ProductExportFormat format, OutputStream out, ObjectMapper objectMapper) {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        this.objectMapper = objectMapper;
+        if (format == ProductExportFormat.CSV) {
+            writeCsvRow((Object[]) CSV_HEADER);
+        }
+    }
+
+    /**
+     * Ghi một sản phẩm.
+     * 
+     * @param product DTO của sản phẩm.
+     * @throws UncheckedIOException Nếu không ghi được (ví dụ client ngắt kết nối).
+     */
+    public void write(ProductDTO product) {
+        if (format == ProductExportFormat.NDJSON) {
+            try {
+                writer.write(objectMapper.writeValueAsString(product));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else {
+            writeCsvRow(product.getId(), product.getName(), product.getPrice(), product.getDiscountPrice(),
+                    product.getImageUrl(), product.getDescription(), product.getCategory(), product.getStatus(),
+                    product.getCreatedAt(), product.getUpdatedAt());
+        }
+        count++;
+    }
+
+    /**
+     * Số sản phẩm đã ghi.
+     * 
+     * @return Số dòng dữ liệu đã ghi.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+
+    private void writeCsvRow(Object... values) {
+        try {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCsvValue(values[i]);
+            }
+            writer.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Trích dẫn giá trị theo RFC 4180 khi chứa dấu phẩy, dấu nháy kép hoặc xuống dòng
+    private void writeCsvValue(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
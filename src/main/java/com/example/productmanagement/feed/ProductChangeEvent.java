@@ -0,0 +1,18 @@
+package com.example.productmanagement.feed;
+
+import com.example.productmanagement.dto.ProductDTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sự kiện thay đổi sản phẩm, phát ra sau khi transaction đã commit.
+ *
+ * @param id         Số thứ tự tăng dần của sự kiện (dùng làm Last-Event-ID).
+ * @param type       Loại thay đổi.
+ * @param productId  ID của sản phẩm, {@code null} với sự kiện nhập hàng loạt.
+ * @param product    Trạng thái mới của sản phẩm, {@code null} với sự kiện xóa và nhập hàng loạt.
+ * @param occurredAt Thời điểm phát sự kiện.
+ */
+public record ProductChangeEvent(long id, ProductChangeType type, Long productId, ProductDTO product,
+        LocalDateTime occurredAt) {
+}
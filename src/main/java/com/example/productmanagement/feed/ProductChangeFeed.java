@@ -0,0 +1,247 @@
+package com.example.productmanagement.feed;
+
+import com.example.productmanagement.dto.ProductDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Luồng sự kiện thay đổi sản phẩm qua Server-Sent Events.
+ * Các sự kiện được giữ trong một bộ đệm vòng có giới hạn để client kết nối lại với
+ * {@code Last-Event-ID} nhận tiếp các sự kiện đã bỏ lỡ. Mỗi subscriber có hàng đợi riêng
+ * và được gửi trên virtual thread, nên người phát sự kiện không bao giờ bị chặn bởi
+ * một client chậm; client vượt quá giới hạn hàng đợi bị ngắt và phải kết nối lại.
+ */
+@Component
+public class ProductChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeFeed.class);
+
+    // Sự kiện báo client phải tải lại toàn bộ danh sách (đã lỡ quá nhiều sự kiện)
+    private static final Object RESET = new Object();
+    private static final Object HEARTBEAT = new Object();
+
+    private final long timeoutMillis;
+    private final int subscriberQueueLimit;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ProductChangeEvent[] ring;
+    // ID bắt đầu theo thời gian khởi động để ID cũ từ lần chạy trước không bị hiểu nhầm
+    private final long firstId = System.currentTimeMillis() * 1000;
+    private long nextId = firstId;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeats;
+
+    public ProductChangeFeed(@Value("${product.feed.buffer-size:10000}") int bufferSize,
+            @Value("${product.feed.subscriber-queue-limit:1000}") int subscriberQueueLimit,
+            @Value("${product.feed.timeout:PT30M}") Duration timeout,
+            @Value("${product.feed.heartbeat:PT15S}") Duration heartbeat,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.ring = new ProductChangeEvent[bufferSize];
+        // Luồng gửi heartbeat theo cùng chế độ virtual thread với phần còn lại của ứng dụng
+        Thread.Builder heartbeatThread = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(
+                heartbeatThread.name("product-feed-heartbeat").factory());
+        this.subscriberQueueLimit = subscriberQueueLimit;
+        this.timeoutMillis = timeout.toMillis();
+        heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Phát sự kiện thay đổi tới mọi subscriber. Chỉ gọi sau khi transaction đã commit.
+     *
+     * @param type      Loại thay đổi.
+     * @param productId ID của sản phẩm.
+     * @param product   Trạng thái mới của sản phẩm, {@code null} với sự kiện xóa.
+     */
+    public void publish(ProductChangeType type, Long productId, ProductDTO product) {
+        lock.lock();
+        try {
+            ProductChangeEvent event = new ProductChangeEvent(nextId, type, productId, product, LocalDateTime.now());
+            ring[(int) (nextId % ring.length)] = event;
+            nextId++;
+            // Giữ lock để thứ tự sự kiện giống nhau với mọi subscriber và không xen vào lúc phát lại
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(event);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Đăng ký nhận sự kiện.
+     *
+     * @param lastEventId ID của sự kiện cuối cùng client đã nhận (tùy chọn). Nếu các sự kiện
+     *                    sau đó không còn trong bộ đệm, client nhận sự kiện {@code reset}.
+     * @return Emitter SSE của subscriber.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        lock.lock();
+        try {
+            if (lastEventId != null) {
+                long oldest = Math.max(firstId, nextId - ring.length);
+                if (lastEventId + 1 < oldest || lastEventId >= nextId) {
+                    subscriber.replay(RESET);
+                } else {
+                    for (long id = lastEventId + 1; id < nextId; id++) {
+                        subscriber.replay(ring[(int) (id % ring.length)]);
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        subscriber.schedule();
+        return emitter;
+    }
+
+    /**
+     * Số subscriber đang kết nối.
+     *
+     * @return Số subscriber.
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+        senders.shutdown();
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(HEARTBEAT);
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<Object> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // Sự kiện trực tiếp: không chặn, ngắt client nếu hàng đợi đã đầy
+        private void offer(Object item) {
+            if (closed.get()) {
+                return;
+            }
+            if (size.incrementAndGet() > subscriberQueueLimit) {
+                if (closed.compareAndSet(false, true)) {
+                    log.debug("Disconnecting slow product feed subscriber");
+                    senders.execute(this::release);
+                }
+                return;
+            }
+            pending.add(item);
+            schedule();
+        }
+
+        // Sự kiện phát lại khi đăng ký: không tính vào giới hạn hàng đợi (đã giới hạn bởi bộ đệm vòng)
+        private void replay(Object item) {
+            pending.add(new Replay(item));
+        }
+
+        private void schedule() {
+            if (!closed.get() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Object item;
+                while (!closed.get() && (item = pending.poll()) != null) {
+                    if (item instanceof Replay replay) {
+                        send(replay.item());
+                    } else {
+                        size.decrementAndGet();
+                        send(item);
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client đã ngắt kết nối
+                close();
+            } finally {
+                draining.set(false);
+                if (!pending.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+
+        private void send(Object item) throws IOException {
+            if (item == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } else if (item == RESET) {
+                emitter.send(SseEmitter.event().name("reset").data("reset"));
+            } else {
+                ProductChangeEvent event = (ProductChangeEvent) item;
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.id()))
+                        .name(event.type().name().toLowerCase(Locale.ROOT))
+                        .data(event, MediaType.APPLICATION_JSON));
+            }
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                release();
+            }
+        }
+
+        private void release() {
+            subscribers.remove(this);
+            pending.clear();
+            try {
+                emitter.complete();
+            } catch (RuntimeException e) {
+                // Emitter đã hoàn thành
+            }
+        }
+    }
+
+    private record Replay(Object item) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.productmanagement.feed;
+
+/**
+ * Loại thay đổi của sản phẩm trong luồng sự kiện.
+ */
+public enum ProductChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    /**
+     * Nhiều sản phẩm được tạo cùng lúc (nhập hàng loạt); sự kiện không kèm sản phẩm,
+     * client tải lại danh sách đang hiển thị.
+     */
+    BULK_CREATED
+}
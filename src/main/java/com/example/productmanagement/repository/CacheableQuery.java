@@ -0,0 +1,29 @@
+package com.example.productmanagement.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Đánh dấu truy vấn repository được lưu trong query cache của Hibernate, vùng
+ * {@value ProductRepository#QUERY_CACHE_REGION} (xem ehcache.xml).
+ * <p>
+ * Chỉ dùng cho truy vấn trả về DTO hoặc số đếm: kết quả được lưu trọn vẹn trong vùng query cache.
+ * Với truy vấn trả về entity, query cache chỉ giữ danh sách ID (layout SHALLOW) và mỗi lần trúng
+ * phải nạp lại từng entity, tức N+1 lượt đọc khi entity không còn trong second-level cache.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.ANNOTATION_TYPE })
+@QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ProductRepository.QUERY_CACHE_REGION)
+})
+public @interface CacheableQuery {
+}
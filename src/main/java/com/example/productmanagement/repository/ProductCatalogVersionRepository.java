@@ -0,0 +1,28 @@
+package com.example.productmanagement.repository;
+
+import com.example.productmanagement.entity.ProductCatalogVersion;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository cho bộ đếm phiên bản danh mục sản phẩm.
+ */
+@Repository
+public interface ProductCatalogVersionRepository extends JpaRepository<ProductCatalogVersion, Integer> {
+
+    /**
+     * Tăng phiên bản danh mục trong transaction ghi hiện tại. Khóa dòng được giữ tới khi commit,
+     * nên gọi ở cuối transaction.
+     * 
+     * @return Số dòng đã cập nhật (0 nếu dòng bộ đếm chưa được tạo).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Modifying
+    @Query("update ProductCatalogVersion v set v.version = v.version + 1 where v.id = " + ProductCatalogVersion.ID)
+    int increment();
+}
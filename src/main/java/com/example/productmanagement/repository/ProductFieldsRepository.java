@@ -0,0 +1,42 @@
+package com.example.productmanagement.repository;
+
+import com.example.productmanagement.dto.ProductField;
+
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Truy vấn sản phẩm chỉ với các cột được yêu cầu (tham số {@code fields}).
+ * Danh sách SELECT được dựng động, nên lượng dữ liệu đọc từ cơ sở dữ liệu tỉ lệ với
+ * số trường client cần thay vì với toàn bộ bảng.
+ */
+public interface ProductFieldsRepository {
+
+    /**
+     * Lấy một lát sản phẩm với các trường đã chọn, lọc như danh sách sản phẩm:
+     * theo tên nếu có {@code name}, theo giá nếu có cả {@code minPrice} và {@code maxPrice}.
+     * 
+     * @param fields   Các trường cần đọc.
+     * @param name     Tên sản phẩm (chuỗi con, không phân biệt hoa thường).
+     * @param minPrice Giá tối thiểu.
+     * @param maxPrice Giá tối đa.
+     * @param pageable Thông tin phân trang và sắp xếp.
+     * @return Mỗi sản phẩm là một bản đồ tên trường → giá trị, theo thứ tự của {@code fields}.
+     */
+    List<Map<String, Object>> findFields(Set<ProductField> fields, String name, BigDecimal minPrice,
+            BigDecimal maxPrice, Pageable pageable);
+
+    /**
+     * Lấy các trường đã chọn của một sản phẩm.
+     * 
+     * @param id     ID của sản phẩm.
+     * @param fields Các trường cần đọc.
+     * @return Bản đồ tên trường → giá trị, nếu sản phẩm tồn tại.
+     */
+    Optional<Map<String, Object>> findFieldsById(Long id, Set<ProductField> fields);
+}
@@ -0,0 +1,96 @@
+package com.example.productmanagement.repository;
+
+import com.example.productmanagement.dto.ProductField;
+import com.example.productmanagement.entity.Product;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Cài đặt {@link ProductFieldsRepository} bằng Criteria API với projection dạng {@link Tuple}.
+ */
+class ProductFieldsRepositoryImpl implements ProductFieldsRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(Set<ProductField> fields, String name, BigDecimal minPrice,
+            BigDecimal maxPrice, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+        query.multiselect(select(product, fields));
+
+        List<Predicate> filters = new ArrayList<>();
+        if (name != null) {
+            // Tham số bind (không nhúng chuỗi vào câu SQL) và thoát % _ như các truy vấn ContainingIgnoreCase
+            filters.add(cb.like(cb.lower(product.<String>get("name")), cb.lower(cb.parameter(String.class, "name")),
+                    EscapeCharacter.DEFAULT.getEscapeCharacter()));
+        }
+        if (minPrice != null && maxPrice != null) {
+            filters.add(cb.between(product.<BigDecimal>get("price"), minPrice, maxPrice));
+        }
+        query.where(filters.toArray(new Predicate[0]));
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), product, cb));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (name != null) {
+            typedQuery.setParameter("name", "%" + EscapeCharacter.DEFAULT.escape(name) + "%");
+        }
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<Tuple> rows = typedQuery.getResultList();
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            result.add(toMap(row, fields));
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsById(Long id, Set<ProductField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+        query.multiselect(select(product, fields)).where(cb.equal(product.get("id"), id));
+        return entityManager.createQuery(query).getResultStream().findFirst().map(row -> toMap(row, fields));
+    }
+
+    private static List<Selection<?>> select(Root<Product> product, Set<ProductField> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (ProductField field : fields) {
+            selections.add(product.get(field.fieldName()).alias(field.fieldName()));
+        }
+        return selections;
+    }
+
+    private static Map<String, Object> toMap(Tuple row, Set<ProductField> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (ProductField field : fields) {
+            values.put(field.fieldName(), row.get(field.fieldName()));
+        }
+        return values;
+    }
+}
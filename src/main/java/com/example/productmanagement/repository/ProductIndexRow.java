@@ -0,0 +1,20 @@
+package com.example.productmanagement.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection hẹp của sản phẩm dùng để dựng các chỉ mục trong bộ nhớ.
+ * Không đọc các cột lớn như mô tả hay ảnh.
+ */
+public interface ProductIndexRow {
+
+    Long getId();
+
+    String getName();
+
+    BigDecimal getPrice();
+
+    String getCategory();
+
+    String getStatus();
+}
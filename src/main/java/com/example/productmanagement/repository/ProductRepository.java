@@ -1,21 +1,80 @@
 package com.example.productmanagement.repository;
 
+import com.example.productmanagement.dto.ProductDTO;
+import com.example.productmanagement.dto.ProductSummaryDTO;
 import com.example.productmanagement.entity.Product;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository cho bảng sản phẩm.
  * Cung cấp các phương thức để truy xuất và thao tác dữ liệu sản phẩm.
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductFieldsRepository {
+
+    /**
+     * Số dòng JDBC đọc mỗi lượt khi xuất dữ liệu dạng luồng.
+     */
+    int EXPORT_FETCH_SIZE = 1000;
+
+    /**
+     * Phần SELECT chiếu thẳng vào {@link ProductDTO}, không tạo entity.
+     */
+    String DTO_SELECT = "select new com.example.productmanagement.dto.ProductDTO(p.id, p.name, p.price,"
+            + " p.discountPrice, p.imageUrl, p.description, p.category, p.status, p.createdAt, p.updatedAt,"
+            + " p.version) from Product p";
+
+    /**
+     * Phần SELECT chỉ gồm các cột hẹp của {@link ProductSummaryDTO} (không có mô tả và ảnh).
+     */
+    String SUMMARY_SELECT = "select new com.example.productmanagement.dto.ProductSummaryDTO(p.id, p.name,"
+            + " p.price, p.discountPrice, p.category, p.status) from Product p";
+
+    /**
+     * Vùng query cache của Hibernate cho các truy vấn DTO/đếm đánh dấu {@link CacheableQuery} (xem ehcache.xml).
+     * Kết quả tự mất hiệu lực khi bảng products thay đổi qua Hibernate.
+     */
+    String QUERY_CACHE_REGION = "product-queries";
+
+    /**
+     * Lọc theo chuỗi con trong tên, không phân biệt hoa thường. Ký tự {@code %} và {@code _} trong
+     * tham số được thoát như các truy vấn {@code ContainingIgnoreCase}, nên được so khớp đúng nguyên văn.
+     */
+    String NAME_FILTER = "lower(p.name) like lower(concat('%', :#{escape(#name)}, '%')) escape :#{escapeCharacter()}";
+
+    String PRICE_FILTER = "p.price between :minPrice and :maxPrice";
+
+    /**
+     * Khoảng giá có thể chỉ có một cận: cận {@code null} nghĩa là không giới hạn phía đó, như các chỉ mục
+     * trong bộ nhớ. Chỉ dùng cho các đường dự phòng khi chỉ mục chưa sẵn sàng; khoảng đủ hai cận dùng
+     * {@link #PRICE_FILTER} để kế hoạch truy vấn không phụ thuộc tham số nào bị bỏ trống.
+     */
+    String OPEN_PRICE_FILTER = "(:minPrice is null or p.price >= :minPrice)"
+            + " and (:maxPrice is null or p.price <= :maxPrice)";
 
     /**
      * Tìm sản phẩm theo tên.
@@ -51,5 +110,284 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     Page<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
 
+    /**
+     * Lấy trang sản phẩm theo tên và khoảng giá, chiếu thẳng vào DTO.
+     * Hibernate không tạo entity, không giữ snapshot để dirty-check và không phải flush.
+     * 
+     * @param name     Tên sản phẩm.
+     * @param minPrice Giá tối thiểu.
+     * @param maxPrice Giá tối đa.
+     * @param pageable Thông tin phân trang.
+     * @return Trang DTO sản phẩm khớp với tiêu chí lọc.
+     */
+    @CacheableQuery
+    @Query(value = DTO_SELECT + " where " + NAME_FILTER + " and " + PRICE_FILTER,
+            countQuery = "select count(p) from Product p where " + NAME_FILTER + " and " + PRICE_FILTER)
+    Page<ProductDTO> findDtoByNameAndPrice(@Param("name") String name, @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice, Pageable pageable);
+
+    @CacheableQuery
+    @Query(value = DTO_SELECT + " where " + NAME_FILTER,
+            countQuery = "select count(p) from Product p where " + NAME_FILTER)
+    Page<ProductDTO> findDtoByName(@Param("name") String name, Pageable pageable);
+
+    @CacheableQuery
+    @Query(value = DTO_SELECT + " where " + PRICE_FILTER,
+            countQuery = "select count(p) from Product p where " + PRICE_FILTER)
+    Page<ProductDTO> findDtoByPrice(@Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice,
+            Pageable pageable);
+
+    @CacheableQuery
+    @Query(value = DTO_SELECT, countQuery = "select count(p) from Product p")
+    Page<ProductDTO> findAllDto(Pageable pageable);
+
+    /**
+     * Lấy một lát sản phẩm dạng rút gọn theo tên và khoảng giá.
+     * Chỉ đọc các cột hẹp; mô tả và ảnh không được truyền từ cơ sở dữ liệu.
+     * 
+     * @param name     Tên sản phẩm.
+     * @param minPrice Giá tối thiểu.
+     * @param maxPrice Giá tối đa.
+     * @param pageable Thông tin phân trang.
+     * @return Lát DTO rút gọn khớp với tiêu chí lọc.
+     */
+    @CacheableQuery
+    @Query(SUMMARY_SELECT + " where " + NAME_FILTER + " and " + PRICE_FILTER)
+    Slice<ProductSummaryDTO> findSummaryByNameAndPrice(@Param("name") String name,
+            @Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice, Pageable pageable);
+
+    @CacheableQuery
+    @Query(SUMMARY_SELECT + " where " + NAME_FILTER)
+    Slice<ProductSummaryDTO> findSummaryByName(@Param("name") String name, Pageable pageable);
+
+    // Như findDtoByPrice nhưng không chạy COUNT; tổng số lấy từ chỉ mục giá trong bộ nhớ
+    @CacheableQuery
+    @Query(DTO_SELECT + " where " + PRICE_FILTER)
+    Slice<ProductDTO> findDtoSliceByPrice(@Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice, Pageable pageable);
+
+    @CacheableQuery
+    @Query(SUMMARY_SELECT + " where " + PRICE_FILTER)
+    Slice<ProductSummaryDTO> findSummaryByPrice(@Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice, Pageable pageable);
+
+    @CacheableQuery
+    @Query(SUMMARY_SELECT)
+    Slice<ProductSummaryDTO> findAllSummaries(Pageable pageable);
+
+    /**
+     * Lấy một lát (slice) sản phẩm theo tên và khoảng giá, chiếu thẳng vào DTO.
+     * Khác với {@link Page}, chỉ đọc {@code size + 1} dòng để biết còn trang sau
+     * hay không và không chạy thêm truy vấn COUNT(*).
+     * 
+     * @param name     Tên sản phẩm.
+     * @param minPrice Giá tối thiểu.
+     * @param maxPrice Giá tối đa.
+     * @param pageable Thông tin phân trang.
+     * @return Lát DTO sản phẩm khớp với tiêu chí lọc.
+     */
+    @CacheableQuery
+    @Query(DTO_SELECT + " where " + NAME_FILTER + " and " + PRICE_FILTER)
+    Slice<ProductDTO> findDtoSliceByNameAndPrice(@Param("name") String name,
+            @Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice, Pageable pageable);
+
+    @CacheableQuery
+    @Query(DTO_SELECT + " where " + NAME_FILTER)
+    Slice<ProductDTO> findDtoSliceByName(@Param("name") String name, Pageable pageable);
+
+    @CacheableQuery
+    @Query(DTO_SELECT)
+    Slice<ProductDTO> findAllDtoSlice(Pageable pageable);
+
+    /**
+     * Đếm sản phẩm theo tên và khoảng giá.
+     * 
+     * @param name     Tên sản phẩm.
+     * @param minPrice Giá tối thiểu.
+     * @param maxPrice Giá tối đa.
+     * @return Số sản phẩm khớp với tiêu chí lọc.
+     */
+    @CacheableQuery
+    long countByNameContainingIgnoreCaseAndPriceBetween(String name, BigDecimal minPrice, BigDecimal maxPrice);
+
+    @CacheableQuery
+    long countByNameContainingIgnoreCase(String name);
+
+    @CacheableQuery
+    long countByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice);
+
+    /**
+     * Lấy trang DTO sản phẩm theo tên và khoảng giá có thể chỉ có một cận ({@link #OPEN_PRICE_FILTER}).
+     * 
+     * @param name     Tên sản phẩm.
+     * @param minPrice Giá tối thiểu, hoặc {@code null}.
+     * @param maxPrice Giá tối đa, hoặc {@code null}.
+     * @param pageable Thông tin phân trang.
+     * @return Trang DTO sản phẩm khớp với tiêu chí lọc.
+     */
+    @CacheableQuery
+    @Query(value = DTO_SELECT + " where " + NAME_FILTER + " and " + OPEN_PRICE_FILTER,
+            countQuery = "select count(p) from Product p where " + NAME_FILTER + " and " + OPEN_PRICE_FILTER)
+    Page<ProductDTO> findDtoByNameAndPriceRange(@Param("name") String name, @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice, Pageable pageable);
+
+    /**
+     * Đếm sản phẩm theo khoảng giá có thể chỉ có một cận ({@link #OPEN_PRICE_FILTER}).
+     * 
+     * @param minPrice Giá tối thiểu, hoặc {@code null}.
+     * @param maxPrice Giá tối đa, hoặc {@code null}.
+     * @return Số sản phẩm có giá trong khoảng.
+     */
+    @CacheableQuery
+    @Query("select count(p) from Product p where " + OPEN_PRICE_FILTER)
+    long countByPriceRange(@Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice);
+
+    /**
+     * Cuộn theo keyset danh sách sản phẩm theo tên và khoảng giá.
+     * Truy vấn tìm tới vị trí sau khóa cuối cùng thay vì dùng OFFSET, nên chi phí
+     * không tăng theo số trang.
+     * 
+     * @param name     Tên sản phẩm.
+     * @param minPrice Giá tối thiểu.
+     * @param maxPrice Giá tối đa.
+     * @param position Vị trí keyset bắt đầu.
+     * @param sort     Thứ tự sắp xếp (phải xác định duy nhất một dòng, ví dụ name, id).
+     * @param limit    Số dòng tối đa.
+     * @return Cửa sổ kết quả.
+     */
+    Window<Product> findByNameContainingIgnoreCaseAndPriceBetween(String name, BigDecimal minPrice,
+            BigDecimal maxPrice, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Product> findByNameContainingIgnoreCase(String name, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, ScrollPosition position, Sort sort,
+            Limit limit);
+
+    Window<Product> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Đọc projection hẹp (id, name, price, category, status) theo thứ tự ID, dùng để dựng
+     * chỉ mục trong bộ nhớ.
+     * 
+     * @param afterId Chỉ lấy các sản phẩm có ID lớn hơn giá trị này.
+     * @param limit   Số dòng tối đa.
+     * @return Danh sách dòng theo thứ tự ID tăng dần.
+     */
+    @Query("select p.id as id, p.name as name, p.price as price, p.category as category, p.status as status"
+            + " from Product p where p.id > :afterId order by p.id")
+    List<ProductIndexRow> findIndexRowsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Đọc các sản phẩm thay đổi sau vị trí keyset (updatedAt, id), không muộn hơn {@code until},
+     * chiếu thẳng vào DTO. Dùng chỉ mục {@code ix_products_updated_at} (SQL Server tự thêm khóa
+     * clustered {@code id} vào cuối chỉ mục nên thứ tự (updated_at, id) không cần sắp xếp lại).
+     * 
+     * @param after   Thời điểm cập nhật của sản phẩm cuối cùng đã đọc.
+     * @param afterId ID của sản phẩm cuối cùng đã đọc.
+     * @param until   Chỉ lấy các sản phẩm có thời điểm cập nhật không muộn hơn giá trị này.
+     * @param limit   Số dòng tối đa.
+     * @return Danh sách DTO theo thứ tự (updatedAt, id).
+     */
+    @Query(DTO_SELECT + " where p.updatedAt >= :after and (p.updatedAt > :after or p.id > :afterId)"
+            + " and p.updatedAt <= :until order by p.updatedAt, p.id")
+    List<ProductDTO> findDtoChangedAfter(@Param("after") LocalDateTime after, @Param("afterId") Long afterId,
+            @Param("until") LocalDateTime until, Limit limit);
+
+    /**
+     * Đọc tuần tự (forward-only) các sản phẩm để xuất dữ liệu, các tiêu chí lọc
+     * được đưa xuống SQL; tham số {@code null} nghĩa là không lọc.
+     * Phải được gọi trong transaction và đóng luồng sau khi dùng.
+     * 
+     * @param name     Tên sản phẩm (chuỗi con, không phân biệt hoa thường; {@code %} và {@code _}
+     *                 được so khớp đúng ký tự).
+     * @param minPrice Giá tối thiểu.
+     * @param maxPrice Giá tối đa.
+     * @param category Danh mục sản phẩm.
+     * @return Luồng sản phẩm theo thứ tự ID.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            // Không đổ toàn bộ bảng vào second-level cache khi xuất dữ liệu
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select p from Product p"
+            + " where (:name is null or " + NAME_FILTER + ")"
+            + " and " + OPEN_PRICE_FILTER
+            + " and (:category is null or p.category = :category)"
+            + " order by p.id")
+    Stream<Product> streamForExport(@Param("name") String name, @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice, @Param("category") String category);
+
+    /**
+     * Xóa sản phẩm theo ID bằng một câu lệnh DELETE, không đọc dòng trước.
+     * 
+     * @param id ID của sản phẩm.
+     * @return Số dòng bị xóa (0 nếu không tồn tại).
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from Product p where p.id = :id")
+    int deleteProductById(@Param("id") Long id);
+
+    /**
+     * Xóa sản phẩm theo ID nếu phiên bản còn khớp (dùng cho DELETE có If-Match).
+     * 
+     * @param id      ID của sản phẩm.
+     * @param version Phiên bản mong đợi.
+     * @return Số dòng bị xóa (0 nếu không tồn tại hoặc phiên bản đã thay đổi).
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from Product p where p.id = :id and p.version = :version")
+    int deleteProductByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
+
+    /**
+     * Xóa các sản phẩm theo danh sách ID bằng một câu lệnh DELETE ... IN.
+     * Số ID mỗi lần gọi cần nhỏ hơn giới hạn tham số của SQL Server (2100).
+     * 
+     * @param ids Danh sách ID.
+     * @return Số dòng bị xóa.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from Product p where p.id in :ids")
+    int deleteProductsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Trả về các ID còn tồn tại trong danh sách.
+     * Số ID mỗi lần gọi cần nhỏ hơn giới hạn tham số của SQL Server (2100).
+     * 
+     * @param ids Danh sách ID.
+     * @return Các ID đang tồn tại.
+     */
+    @Query("select p.id from Product p where p.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Đọc các cột xác định phiên bản của một sản phẩm (dùng để tạo ETag).
+     * 
+     * @param id ID của sản phẩm.
+     * @return ID, phiên bản và thời điểm cập nhật, nếu sản phẩm tồn tại.
+     */
+    @Query("select p.id as id, p.version as version, p.updatedAt as updatedAt from Product p where p.id = :id")
+    Optional<ProductStamp> findStampById(@Param("id") Long id);
+
+    /**
+     * Đọc phiên bản danh mục, thời điểm cập nhật gần nhất của bảng và thời điểm xóa gần nhất
+     * (dùng để tạo ETag danh sách). Phiên bản danh mục là một dòng duy nhất, hai thời điểm là MAX trên
+     * cột có chỉ mục ({@code ix_products_updated_at}, {@code ix_product_tombstones_deleted_at}), nên chỉ
+     * cần đọc một dòng cuối mỗi chỉ mục thay vì đếm toàn bảng.
+     * Phiên bản danh mục tăng trong mỗi transaction ghi của ứng dụng, kể cả khi các transaction commit
+     * khác thứ tự thời điểm {@code updatedAt}; hai thời điểm vẫn giữ để nhận ra các dòng ghi trực tiếp
+     * vào cơ sở dữ liệu.
+     * 
+     * @return Dấu vân tay của bảng sản phẩm.
+     */
+    @Query("select (select v.version from ProductCatalogVersion v) as catalogVersion,"
+            + " max(p.updatedAt) as lastUpdatedAt,"
+            + " (select max(t.deletedAt) from ProductTombstone t) as lastDeletedAt from Product p")
+    ProductTableStamp findTableStamp();
+
     // Có thể thêm các phương thức truy vấn khác nếu cần
 }
@@ -0,0 +1,16 @@
+package com.example.productmanagement.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection chỉ gồm các cột xác định phiên bản của một sản phẩm, dùng để tạo ETag
+ * mà không phải đọc cả dòng.
+ */
+public interface ProductStamp {
+
+    Long getId();
+
+    Long getVersion();
+
+    LocalDateTime getUpdatedAt();
+}
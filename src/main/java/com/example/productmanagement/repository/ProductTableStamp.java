@@ -0,0 +1,16 @@
+package com.example.productmanagement.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dấu vân tay của toàn bảng sản phẩm (phiên bản danh mục, thời điểm cập nhật gần nhất và thời điểm
+ * xóa gần nhất theo dấu xóa), dùng để tạo ETag cho các danh sách.
+ */
+public interface ProductTableStamp {
+
+    Long getCatalogVersion();
+
+    LocalDateTime getLastUpdatedAt();
+
+    LocalDateTime getLastDeletedAt();
+}
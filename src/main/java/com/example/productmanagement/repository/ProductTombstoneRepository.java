@@ -0,0 +1,47 @@
+package com.example.productmanagement.repository;
+
+import com.example.productmanagement.entity.ProductTombstone;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository cho bảng dấu xóa sản phẩm.
+ */
+@Repository
+public interface ProductTombstoneRepository extends JpaRepository<ProductTombstone, Long> {
+
+    /**
+     * Đọc các dấu xóa sau vị trí keyset (deletedAt, productId), không muộn hơn {@code until}.
+     * 
+     * @param after     Thời điểm xóa của dấu xóa cuối cùng đã đọc.
+     * @param afterId   ID sản phẩm của dấu xóa cuối cùng đã đọc.
+     * @param until     Chỉ lấy các dấu xóa có thời điểm xóa không muộn hơn giá trị này.
+     * @param limit     Số dòng tối đa.
+     * @return Danh sách dấu xóa theo thứ tự (deletedAt, productId).
+     */
+    @Query("select t from ProductTombstone t"
+            + " where t.deletedAt >= :after and (t.deletedAt > :after or t.productId > :afterId)"
+            + " and t.deletedAt <= :until order by t.deletedAt, t.productId")
+    List<ProductTombstone> findDeletedAfter(@Param("after") LocalDateTime after, @Param("afterId") Long afterId,
+            @Param("until") LocalDateTime until, Limit limit);
+
+    /**
+     * Dọn các dấu xóa cũ hơn thời điểm cho trước.
+     * 
+     * @param cutoff Thời điểm giới hạn.
+     * @return Số dấu xóa đã dọn.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from ProductTombstone t where t.deletedAt < :cutoff")
+    int deleteDeletedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,148 @@
+package com.example.productmanagement.search;
+
+import java.util.Arrays;
+
+/**
+ * Bảng băm long → long địa chỉ mở (dò tuyến tính), không boxing.
+ * Khóa {@link Long#MIN_VALUE} được dành làm ô trống nên không thể lưu.
+ * Không an toàn đa luồng; được bảo vệ bởi khóa của chỉ mục sử dụng nó.
+ */
+final class LongLongHashMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    LongLongHashMap() {
+        this(16);
+    }
+
+    LongLongHashMap(int expected) {
+        allocate(capacityFor(expected));
+    }
+
+    /**
+     * @return Giá trị của {@code key}, hoặc {@code missing} nếu không có.
+     */
+    long get(long key, long missing) {
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return missing;
+    }
+
+    boolean containsKey(long key) {
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    void put(long key, long value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key " + key + " is reserved");
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * Xóa {@code key}, dồn lại các khóa phía sau để không cần đánh dấu ô đã xóa.
+     *
+     * @return {@code true} nếu khóa tồn tại.
+     */
+    boolean remove(long key) {
+        if (key == EMPTY) {
+            return false;
+        }
+        int slot = slot(key);
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = slot(keys[next]);
+            // Dời phần tử về chỗ trống nếu chỗ trống nằm giữa vị trí gốc và vị trí hiện tại của nó
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+        size--;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    private int slot(long key) {
+        // Trộn bit (hằng số Fibonacci) để các ID liên tiếp không dồn cụm
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int capacityFor(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(8, (int) (expected / LOAD_FACTOR)) - 1) << 1;
+        return Math.max(capacity, 16);
+    }
+}
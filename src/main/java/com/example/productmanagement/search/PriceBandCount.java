@@ -0,0 +1,13 @@
+package com.example.productmanagement.search;
+
+import java.math.BigDecimal;
+
+/**
+ * Số sản phẩm trong một khoảng giá của facet giá.
+ *
+ * @param from  Giá bắt đầu (bao gồm), {@code null} với khoảng đầu tiên.
+ * @param to    Giá kết thúc (không bao gồm), {@code null} với khoảng cuối cùng.
+ * @param count Số sản phẩm.
+ */
+public record PriceBandCount(BigDecimal from, BigDecimal to, long count) {
+}
@@ -0,0 +1,17 @@
+package com.example.productmanagement.search;
+
+import java.math.BigDecimal;
+
+/**
+ * Phân bố số sản phẩm theo các khoảng giá bằng nhau.
+ *
+ * @param minPrice    Giá thấp nhất của khoảng đầu tiên.
+ * @param maxPrice    Giá cao nhất được tính (bao gồm).
+ * @param bucketWidth Độ rộng mỗi khoảng giá.
+ * @param counts      Số sản phẩm trong từng khoảng, khoảng thứ {@code i} bắt đầu từ
+ *                    {@code minPrice + i * bucketWidth}.
+ * @param total       Tổng số sản phẩm trong {@code [minPrice, maxPrice]}.
+ */
+public record PriceHistogram(BigDecimal minPrice, BigDecimal maxPrice, BigDecimal bucketWidth, long[] counts,
+        long total) {
+}
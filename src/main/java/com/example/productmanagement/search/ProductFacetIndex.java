@@ -0,0 +1,391 @@
+package com.example.productmanagement.search;
+
+import com.example.productmanagement.repository.ProductIndexRow;
+import com.example.productmanagement.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bộ đếm facet (danh mục, trạng thái, khoảng giá) đặt trong bộ nhớ.
+ * Mỗi sản phẩm được lưu gọn thành một {@code long} (mã danh mục, mã trạng thái, khoảng giá)
+ * để các thao tác tạo, sửa, xóa chỉ cần tăng/giảm bộ đếm tương ứng. Đọc toàn bộ facet tốn
+ * O(số giá trị facet), không phụ thuộc số sản phẩm.
+ * Được dựng lại khi khởi động và khi được yêu cầu.
+ */
+@Component
+public class ProductFacetIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductFacetIndex.class);
+
+    private static final int REBUILD_BATCH_SIZE = 10000;
+    private static final long MISSING = Long.MIN_VALUE;
+
+    // Bố cục của giá trị đóng gói: [mã danh mục: 32 bit][mã trạng thái: 24 bit][khoảng giá: 8 bit]
+    private static final int MAX_BANDS = 0xFF;
+    private static final int NO_BAND = 0xFF;
+    private static final int MAX_STATUS_CODES = 1 << 24;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final boolean enabled;
+
+    // Ranh giới giữa các khoảng giá, theo đơn vị nhỏ nhất và tăng dần
+    private final long[] bandBounds;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Dictionary categories = new Dictionary();
+    private final Dictionary statuses = new Dictionary();
+    private final long[] bandCounts;
+    private final LongLongHashMap facetsById = new LongLongHashMap();
+    private long total;
+
+    // Các ID bị ghi trong lúc dựng lại; dòng đọc từ cơ sở dữ liệu cho các ID này đã cũ
+    private LongLongHashMap touchedDuringRebuild;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile boolean ready;
+
+    public ProductFacetIndex(@Value("${product.facets.enabled:true}") boolean enabled,
+            @Value("${product.facets.price-bands:100000,500000,1000000,5000000}") BigDecimal[] priceBands) {
+        if (priceBands.length >= MAX_BANDS) {
+            throw new IllegalArgumentException("At most " + (MAX_BANDS - 1) + " price band bounds are supported");
+        }
+        this.enabled = enabled;
+        this.bandBounds = new long[priceBands.length];
+        for (int i = 0; i < priceBands.length; i++) {
+            bandBounds[i] = ProductPriceIndex.toMinorUnits(priceBands[i], RoundingMode.HALF_UP);
+        }
+        Arrays.sort(bandBounds);
+        this.bandCounts = new long[bandBounds.length + 1];
+    }
+
+    /**
+     * Dựng lại toàn bộ bộ đếm từ cơ sở dữ liệu.
+     * Trong lúc dựng, {@link #isReady()} trả về {@code false}.
+     */
+    public void rebuild() {
+        rebuild((afterId, limit) -> productRepository.findIndexRowsAfter(afterId, Limit.of(limit)));
+    }
+
+    /**
+     * Dựng lại toàn bộ bộ đếm từ một nguồn dòng cho trước.
+     *
+     * @param source Nguồn dòng theo thứ tự ID tăng dần.
+     */
+    public void rebuild(ProductIndexRowSource source) {
+        if (!enabled || !rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            lock.writeLock().lock();
+            try {
+                ready = false;
+                facetsById.clear();
+                categories.resetCounts();
+                statuses.resetCounts();
+                Arrays.fill(bandCounts, 0);
+                total = 0;
+                touchedDuringRebuild = new LongLongHashMap();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            long lastId = Long.MIN_VALUE;
+            List<ProductIndexRow> rows;
+            do {
+                rows = source.rowsAfter(lastId, REBUILD_BATCH_SIZE);
+                lock.writeLock().lock();
+                try {
+                    for (ProductIndexRow row : rows) {
+                        if (!touchedDuringRebuild.containsKey(row.getId())) {
+                            add(row.getId(), row.getCategory(), row.getStatus(), row.getPrice());
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (!rows.isEmpty()) {
+                    lastId = rows.get(rows.size() - 1).getId();
+                }
+            } while (rows.size() == REBUILD_BATCH_SIZE);
+
+            lock.writeLock().lock();
+            try {
+                touchedDuringRebuild = null;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Product facet counters built: {} products, {} categories, {} statuses in {} ms", total,
+                    categories.size(), statuses.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Product facet counters rebuild failed", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Bộ đếm đã sẵn sàng hay chưa.
+     *
+     * @return {@code true} nếu bộ đếm đã được dựng đầy đủ.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Thêm hoặc cập nhật sản phẩm trong bộ đếm.
+     *
+     * @param id       ID của sản phẩm.
+     * @param category Danh mục.
+     * @param status   Trạng thái.
+     * @param price    Giá sản phẩm.
+     */
+    public void index(Long id, String category, String status, BigDecimal price) {
+        if (!enabled || id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            markTouched(id);
+            unindex(id);
+            add(id, category, status, price);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Xóa sản phẩm khỏi bộ đếm.
+     *
+     * @param id ID của sản phẩm.
+     */
+    public void remove(Long id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            markTouched(id);
+            unindex(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Số sản phẩm theo từng facet trên toàn bộ sản phẩm.
+     *
+     * @return Các bộ đếm facet.
+     */
+    public ProductFacets facets() {
+        lock.readLock().lock();
+        try {
+            return new ProductFacets(total, categories.toMap(categories.counts), statuses.toMap(statuses.counts),
+                    priceBands(bandCounts));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Số sản phẩm theo từng facet trong một tập sản phẩm (ví dụ kết quả lọc theo tên).
+     * Tốn O(số sản phẩm trong tập).
+     *
+     * @param ids ID của các sản phẩm cần tính.
+     * @return Các bộ đếm facet của tập sản phẩm.
+     */
+    public ProductFacets facets(long[] ids) {
+        lock.readLock().lock();
+        try {
+            long[] categoryCounts = new long[categories.size()];
+            long[] statusCounts = new long[statuses.size()];
+            long[] bands = new long[bandCounts.length];
+            long count = 0;
+            for (long id : ids) {
+                long packed = facetsById.get(id, MISSING);
+                if (packed == MISSING) {
+                    continue;
+                }
+                categoryCounts[categoryOf(packed)]++;
+                statusCounts[statusOf(packed)]++;
+                int band = bandOf(packed);
+                if (band != NO_BAND) {
+                    bands[band]++;
+                }
+                count++;
+            }
+            return new ProductFacets(count, categories.toMap(categoryCounts), statuses.toMap(statusCounts),
+                    priceBands(bands));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Danh mục và trạng thái của các sản phẩm, dùng để ghi ảnh chụp danh mục mà không quét bảng.
+     * Sản phẩm không có trong bộ đếm nhận {@code null}.
+     *
+     * @param ids           ID của các sản phẩm cần tra.
+     * @param categoriesOut Nhận danh mục, cùng thứ tự với {@code ids}.
+     * @param statusesOut   Nhận trạng thái, cùng thứ tự với {@code ids}.
+     * @return {@code false} nếu bộ đếm chưa sẵn sàng (đang dựng hoặc bị tắt).
+     */
+    public boolean lookup(long[] ids, String[] categoriesOut, String[] statusesOut) {
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return false;
+            }
+            for (int i = 0; i < ids.length; i++) {
+                long packed = facetsById.get(ids[i], MISSING);
+                categoriesOut[i] = packed == MISSING ? null : categories.values.get(categoryOf(packed));
+                statusesOut[i] = packed == MISSING ? null : statuses.values.get(statusOf(packed));
+            }
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Gọi khi đang giữ write lock
+    private void add(long id, String category, String status, BigDecimal price) {
+        int categoryCode = categories.code(category);
+        int statusCode = statuses.code(status);
+        if (statusCode >= MAX_STATUS_CODES) {
+            throw new IllegalStateException("Too many distinct product statuses");
+        }
+        int band = price == null ? NO_BAND : band(ProductPriceIndex.toMinorUnits(price, RoundingMode.HALF_UP));
+        facetsById.put(id, ((long) categoryCode << 32) | ((long) statusCode << 8) | band);
+        categories.counts[categoryCode]++;
+        statuses.counts[statusCode]++;
+        if (band != NO_BAND) {
+            bandCounts[band]++;
+        }
+        total++;
+    }
+
+    // Gọi khi đang giữ write lock
+    private void unindex(long id) {
+        long packed = facetsById.get(id, MISSING);
+        if (packed == MISSING) {
+            return;
+        }
+        facetsById.remove(id);
+        categories.counts[categoryOf(packed)]--;
+        statuses.counts[statusOf(packed)]--;
+        int band = bandOf(packed);
+        if (band != NO_BAND) {
+            bandCounts[band]--;
+        }
+        total--;
+    }
+
+    private void markTouched(long id) {
+        if (touchedDuringRebuild != null) {
+            touchedDuringRebuild.put(id, 0);
+        }
+    }
+
+    // Số ranh giới nhỏ hơn hoặc bằng giá, tức chỉ số của khoảng giá chứa nó
+    private int band(long price) {
+        int pos = Arrays.binarySearch(bandBounds, price);
+        return pos >= 0 ? pos + 1 : -pos - 1;
+    }
+
+    private List<PriceBandCount> priceBands(long[] counts) {
+        List<PriceBandCount> bands = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            BigDecimal from = i == 0 ? null : ProductPriceIndex.fromMinorUnits(bandBounds[i - 1]);
+            BigDecimal to = i == bandBounds.length ? null : ProductPriceIndex.fromMinorUnits(bandBounds[i]);
+            bands.add(new PriceBandCount(from, to, counts[i]));
+        }
+        return bands;
+    }
+
+    private static int categoryOf(long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    private static int statusOf(long packed) {
+        return (int) (packed >>> 8) & (MAX_STATUS_CODES - 1);
+    }
+
+    private static int bandOf(long packed) {
+        return (int) packed & 0xFF;
+    }
+
+    /**
+     * Từ điển giá trị facet ↔ mã số nguyên, kèm bộ đếm theo mã.
+     * Mã 0 dành cho giá trị {@code null} và không được trả về trong kết quả.
+     * Không an toàn đa luồng; được bảo vệ bởi khóa của {@link ProductFacetIndex}.
+     */
+    private static final class Dictionary {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private long[] counts = new long[8];
+
+        private Dictionary() {
+            values.add(null);
+        }
+
+        private int code(String value) {
+            if (value == null) {
+                return 0;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+                if (code == counts.length) {
+                    counts = Arrays.copyOf(counts, counts.length * 2);
+                }
+            }
+            return code;
+        }
+
+        private int size() {
+            return values.size();
+        }
+
+        private void resetCounts() {
+            Arrays.fill(counts, 0);
+        }
+
+        // Các giá trị có số lượng > 0, giảm dần theo số lượng
+        private Map<String, Long> toMap(long[] countsByCode) {
+            List<Integer> present = new ArrayList<>();
+            for (int code = 1; code < values.size(); code++) {
+                if (countsByCode[code] > 0) {
+                    present.add(code);
+                }
+            }
+            present.sort((a, b) -> Long.compare(countsByCode[b], countsByCode[a]));
+            Map<String, Long> result = new LinkedHashMap<>();
+            for (int code : present) {
+                result.put(values.get(code), countsByCode[code]);
+            }
+            return result;
+        }
+    }
+}
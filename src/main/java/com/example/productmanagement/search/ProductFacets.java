@@ -0,0 +1,16 @@
+package com.example.productmanagement.search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Số sản phẩm theo từng facet, dùng cho thanh lọc của trang danh sách.
+ *
+ * @param total      Tổng số sản phẩm được tính.
+ * @param categories Số sản phẩm theo danh mục, giảm dần theo số lượng.
+ * @param statuses   Số sản phẩm theo trạng thái, giảm dần theo số lượng.
+ * @param priceBands Số sản phẩm theo khoảng giá, tăng dần theo giá.
+ */
+public record ProductFacets(long total, Map<String, Long> categories, Map<String, Long> statuses,
+        List<PriceBandCount> priceBands) {
+}
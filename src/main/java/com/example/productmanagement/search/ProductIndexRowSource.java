@@ -0,0 +1,23 @@
+package com.example.productmanagement.search;
+
+import com.example.productmanagement.repository.ProductIndexRow;
+
+import java.util.List;
+
+/**
+ * Nguồn dòng để dựng các chỉ mục trong bộ nhớ, đọc theo keyset trên ID.
+ * Mặc định là {@code ProductRepository#findIndexRowsAfter}; khi khởi động có thể là ảnh chụp
+ * danh mục đã được đối chiếu với cơ sở dữ liệu.
+ */
+@FunctionalInterface
+public interface ProductIndexRowSource {
+
+    /**
+     * Đọc các dòng có ID lớn hơn {@code afterId}.
+     *
+     * @param afterId ID cuối cùng đã đọc ({@link Long#MIN_VALUE} cho lần đọc đầu tiên).
+     * @param limit   Số dòng tối đa.
+     * @return Danh sách dòng theo thứ tự ID tăng dần; ít hơn {@code limit} dòng nghĩa là đã hết.
+     */
+    List<ProductIndexRow> rowsAfter(long afterId, int limit);
+}
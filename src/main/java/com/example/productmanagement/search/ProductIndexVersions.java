@@ -0,0 +1,65 @@
+package com.example.productmanagement.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Phiên bản mới nhất của từng sản phẩm đã được áp dụng vào các chỉ mục trong bộ nhớ.
+ * Hook sau commit của hai lần ghi cùng một sản phẩm có thể chạy lệch thứ tự commit; khác với bộ nhớ
+ * đệm có TTL, chỉ mục không tự hết hạn, nên cập nhật mang phiên bản cũ hơn bị bỏ qua thay vì ghi đè
+ * giá trị mới cho tới lần dựng lại sau.
+ * Chỉ lưu các sản phẩm được ghi qua ứng dụng kể từ khi khởi động (27–53 byte mỗi sản phẩm tùy độ đầy của bảng băm);
+ * sản phẩm đã xóa được giữ lại dưới dạng dấu xóa để cập nhật đến muộn không thêm lại nó.
+ */
+@Component
+public class ProductIndexVersions {
+
+    private static final long MISSING = Long.MIN_VALUE;
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongLongHashMap versionById = new LongLongHashMap();
+
+    /**
+     * Áp dụng cập nhật của một sản phẩm nếu phiên bản không cũ hơn phiên bản đã áp dụng.
+     * Cập nhật chạy khi đang giữ khóa, nên hai cập nhật của cùng sản phẩm không xen nhau.
+     *
+     * @param id      ID của sản phẩm.
+     * @param version Phiên bản của sản phẩm sau lần ghi, hoặc {@code null} nếu không rõ.
+     * @param update  Cập nhật các chỉ mục.
+     * @return {@code false} nếu cập nhật bị bỏ qua vì đã cũ hoặc sản phẩm đã bị xóa.
+     */
+    public boolean apply(Long id, Long version, Runnable update) {
+        lock.lock();
+        try {
+            long current = versionById.get(id, MISSING);
+            if (current == DELETED || (version != null && current != MISSING && current > version)) {
+                return false;
+            }
+            if (version != null) {
+                versionById.put(id, version);
+            }
+            update.run();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Xóa một sản phẩm khỏi các chỉ mục và đánh dấu để bỏ qua các cập nhật đến sau.
+     *
+     * @param id     ID của sản phẩm.
+     * @param update Xóa sản phẩm khỏi các chỉ mục.
+     */
+    public void remove(Long id, Runnable update) {
+        lock.lock();
+        try {
+            versionById.put(id, DELETED);
+            update.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,418 @@
+package com.example.productmanagement.search;
+
+import com.example.productmanagement.repository.ProductIndexRow;
+import com.example.productmanagement.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Chỉ mục đảo trigram trên tên sản phẩm, đặt trong bộ nhớ.
+ * Trả lời tìm kiếm chuỗi con không phân biệt hoa thường (tương đương
+ * {@code findByNameContainingIgnoreCase}) mà không phải quét toàn bảng.
+ * Được dựng lại khi khởi động và cập nhật dần theo các thao tác tạo, sửa, xóa.
+ */
+@Component
+public class ProductNameIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductNameIndex.class);
+
+    private static final int GRAM = 3;
+    private static final int REBUILD_BATCH_SIZE = 10000;
+
+    private static final Comparator<Entry> NAME_ORDER = Comparator.comparing(Entry::normalized)
+            .thenComparingLong(Entry::id);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+
+    // Các ID bị ghi trong lúc dựng lại; dòng đọc từ cơ sở dữ liệu cho các ID này đã cũ
+    private Set<Long> touchedDuringRebuild;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile boolean ready;
+
+    public ProductNameIndex(@Value("${product.search.index.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Dựng lại toàn bộ chỉ mục từ cơ sở dữ liệu.
+     * Trong lúc dựng, {@link #isReady()} trả về {@code false} để tìm kiếm quay về cơ sở dữ liệu.
+     */
+    public void rebuild() {
+        rebuild((afterId, limit) -> productRepository.findIndexRowsAfter(afterId, Limit.of(limit)));
+    }
+
+    /**
+     * Dựng lại toàn bộ chỉ mục từ một nguồn dòng cho trước (cơ sở dữ liệu hoặc ảnh chụp danh mục).
+     * Sản phẩm được ghi trong lúc dựng giữ giá trị mới, dòng cũ từ nguồn bị bỏ qua.
+     *
+     * @param source Nguồn dòng theo thứ tự ID tăng dần.
+     */
+    public void rebuild(ProductIndexRowSource source) {
+        if (!enabled || !rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            lock.writeLock().lock();
+            try {
+                ready = false;
+                entries.clear();
+                postings.clear();
+                touchedDuringRebuild = new HashSet<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            long lastId = Long.MIN_VALUE;
+            List<ProductIndexRow> rows;
+            do {
+                rows = source.rowsAfter(lastId, REBUILD_BATCH_SIZE);
+                lock.writeLock().lock();
+                try {
+                    for (ProductIndexRow row : rows) {
+                        if (!touchedDuringRebuild.contains(row.getId())) {
+                            put(row.getId(), row.getName(), row.getPrice());
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (!rows.isEmpty()) {
+                    lastId = rows.get(rows.size() - 1).getId();
+                }
+            } while (rows.size() == REBUILD_BATCH_SIZE);
+
+            lock.writeLock().lock();
+            try {
+                touchedDuringRebuild = null;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Product name index built: {} products, {} trigrams in {} ms", entries.size(),
+                    postings.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Product name index rebuild failed, searches fall back to the database", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Chỉ mục đã sẵn sàng phục vụ tìm kiếm hay chưa.
+     * 
+     * @return {@code true} nếu chỉ mục đã được dựng đầy đủ.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Thêm hoặc cập nhật sản phẩm trong chỉ mục.
+     * 
+     * @param id    ID của sản phẩm.
+     * @param name  Tên sản phẩm.
+     * @param price Giá sản phẩm.
+     */
+    public void index(Long id, String name, BigDecimal price) {
+        if (!enabled || id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            markTouched(id);
+            unindex(id);
+            put(id, name, price);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Xóa sản phẩm khỏi chỉ mục.
+     * 
+     * @param id ID của sản phẩm.
+     */
+    public void remove(Long id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            markTouched(id);
+            unindex(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tìm sản phẩm có tên chứa chuỗi con, tùy chọn lọc theo khoảng giá.
+     * 
+     * @param query    Chuỗi con cần tìm (không phân biệt hoa thường).
+     * @param minPrice Giá tối thiểu (tùy chọn).
+     * @param maxPrice Giá tối đa (tùy chọn).
+     * @param offset   Vị trí bắt đầu trong kết quả đã sắp xếp theo tên.
+     * @param limit    Số kết quả tối đa.
+     * @return ID của các sản phẩm trong trang và tổng số kết quả.
+     */
+    public ProductSearchResult search(String query, BigDecimal minPrice, BigDecimal maxPrice, int offset,
+            int limit) {
+        List<Entry> matches;
+        lock.readLock().lock();
+        try {
+            matches = matching(normalize(query), minPrice, maxPrice);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Entry> top = firstInNameOrder(matches, (int) Math.min((long) offset + limit, Integer.MAX_VALUE));
+        int from = Math.min(offset, top.size());
+        List<Long> ids = new ArrayList<>(top.size() - from);
+        for (Entry entry : top.subList(from, top.size())) {
+            ids.add(entry.id());
+        }
+        return new ProductSearchResult(ids, matches.size());
+    }
+
+    // Chọn k phần tử đầu tiên theo tên bằng heap giới hạn k phần tử (O(n log k)),
+    // thay vì sắp xếp toàn bộ kết quả cho mỗi trang
+    private static List<Entry> firstInNameOrder(List<Entry> matches, int k) {
+        if (k >= matches.size()) {
+            matches.sort(NAME_ORDER);
+            return matches;
+        }
+        PriorityQueue<Entry> heap = new PriorityQueue<>(k + 1, NAME_ORDER.reversed());
+        for (Entry entry : matches) {
+            if (heap.size() < k) {
+                heap.add(entry);
+            } else if (NAME_ORDER.compare(entry, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+        Entry[] top = new Entry[heap.size()];
+        for (int i = top.length - 1; i >= 0; i--) {
+            top[i] = heap.poll();
+        }
+        return Arrays.asList(top);
+    }
+
+    /**
+     * Lấy ID của mọi sản phẩm có tên chứa chuỗi con, không sắp xếp.
+     * 
+     * @param query Chuỗi con cần tìm (không phân biệt hoa thường).
+     * @return ID của các sản phẩm khớp.
+     */
+    public long[] matchingIds(String query) {
+        List<Entry> matches;
+        lock.readLock().lock();
+        try {
+            matches = matching(normalize(query), null, null);
+        } finally {
+            lock.readLock().unlock();
+        }
+        long[] ids = new long[matches.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = matches.get(i).id();
+        }
+        return ids;
+    }
+
+    /**
+     * Số sản phẩm trong chỉ mục.
+     * 
+     * @return Số sản phẩm đã được lập chỉ mục.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Các sản phẩm trong chỉ mục theo ID tăng dần, dùng để ghi ảnh chụp danh mục mà không quét bảng.
+     * Tên là tên đã chuẩn hóa như chỉ mục lưu; danh mục và trạng thái là {@code null}.
+     *
+     * @return Các dòng, hoặc {@code null} nếu chỉ mục chưa sẵn sàng (đang dựng hoặc bị tắt).
+     */
+    public List<ProductIndexRow> rows() {
+        List<ProductIndexRow> rows;
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return null;
+            }
+            rows = new ArrayList<>(entries.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+        rows.sort(Comparator.comparingLong(ProductIndexRow::getId));
+        return rows;
+    }
+
+    // Gọi khi đang giữ read lock
+    private List<Entry> matching(String needle, BigDecimal minPrice, BigDecimal maxPrice) {
+        List<Entry> matches = new ArrayList<>();
+        if (needle.length() < GRAM) {
+            // Chuỗi quá ngắn để dùng trigram: duyệt toàn bộ tên trong bộ nhớ
+            for (Entry entry : entries.values()) {
+                if (entry.matches(needle, minPrice, maxPrice)) {
+                    matches.add(entry);
+                }
+            }
+        } else {
+            for (long id : candidates(needle)) {
+                Entry entry = entries.get(id);
+                if (entry != null && entry.matches(needle, minPrice, maxPrice)) {
+                    matches.add(entry);
+                }
+            }
+        }
+        return matches;
+    }
+
+    // Giao các posting list của mọi trigram, bắt đầu từ danh sách ngắn nhất
+    private long[] candidates(String needle) {
+        List<PostingList> lists = new ArrayList<>();
+        for (long gram : grams(needle)) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+
+        PostingList smallest = lists.get(0);
+        long[] result = new long[smallest.size()];
+        int count = 0;
+        for (int i = 0; i < smallest.size(); i++) {
+            long id = smallest.get(i);
+            boolean inAll = true;
+            for (int j = 1; j < lists.size() && inAll; j++) {
+                inAll = lists.get(j).contains(id);
+            }
+            if (inAll) {
+                result[count++] = id;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    // Gọi khi đang giữ write lock
+    private void put(Long id, String name, BigDecimal price) {
+        String normalized = normalize(name);
+        entries.put(id, new Entry(id, normalized, price));
+        for (long gram : grams(normalized)) {
+            postings.computeIfAbsent(gram, g -> new PostingList()).add(id);
+        }
+    }
+
+    // Gọi khi đang giữ write lock
+    private void unindex(Long id) {
+        Entry previous = entries.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (long gram : grams(previous.normalized())) {
+            PostingList list = postings.get(gram);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private void markTouched(Long id) {
+        if (touchedDuringRebuild != null) {
+            touchedDuringRebuild.add(id);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    // Mỗi trigram được đóng gói thành một long (3 ký tự x 16 bit)
+    private static Set<Long> grams(String normalized) {
+        Set<Long> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= normalized.length(); i++) {
+            long gram = ((long) normalized.charAt(i) << 32)
+                    | ((long) normalized.charAt(i + 1) << 16)
+                    | normalized.charAt(i + 2);
+            grams.add(gram);
+        }
+        return grams;
+    }
+
+    private record Entry(long id, String normalized, BigDecimal price) implements ProductIndexRow {
+
+        private boolean matches(String needle, BigDecimal minPrice, BigDecimal maxPrice) {
+            if (!normalized.contains(needle)) {
+                return false;
+            }
+            if (minPrice != null && (price == null || price.compareTo(minPrice) < 0)) {
+                return false;
+            }
+            return maxPrice == null || (price != null && price.compareTo(maxPrice) <= 0);
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return normalized;
+        }
+
+        @Override
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        @Override
+        public String getCategory() {
+            return null;
+        }
+
+        @Override
+        public String getStatus() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,591 @@
+package com.example.productmanagement.search;
+
+import com.example.productmanagement.repository.ProductIndexRow;
+import com.example.productmanagement.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Chỉ mục giá sản phẩm đặt trong bộ nhớ.
+ * Giá được lưu dưới dạng đơn vị nhỏ nhất ({@code long}, 2 chữ số thập phân) trong hai mảng
+ * nguyên thủy song song, sắp xếp theo (giá, ID), kèm bảng băm ID → giá để cập nhật và xóa.
+ * Đếm theo khoảng giá và histogram chỉ cần tìm kiếm nhị phân, không truy vấn cơ sở dữ liệu.
+ * Được dựng lại khi khởi động và cập nhật dần theo các thao tác tạo, sửa, xóa.
+ * <p>
+ * Thao tác ghi từng sản phẩm không dịch các mảng chính (O(n)) mà ghi vào hai mảng nhỏ đã sắp xếp:
+ * phần thêm và phần xóa khỏi mảng chính; truy vấn cộng/trừ kết quả của hai mảng này. Khi chúng đủ
+ * {@value #MAX_PENDING} phần tử, cả hai được gộp vào mảng chính trong một lượt, nên mỗi lần ghi tốn
+ * O({@value #MAX_PENDING}) cộng O(n / {@value #MAX_PENDING}) khấu hao.
+ * <p>
+ * Bộ nhớ: 16 byte mỗi sản phẩm trong hai mảng chính (tới 24 byte ngay sau khi mảng nới rộng) và
+ * 27–53 byte trong bảng băm ID → giá tùy độ đầy, tức khoảng 43–77 byte mỗi sản phẩm, cộng tối đa
+ * {@value #MAX_PENDING} phần tử đang chờ gộp.
+ */
+@Component
+public class ProductPriceIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductPriceIndex.class);
+
+    // Số chữ số thập phân của cột price
+    static final int SCALE = 2;
+
+    private static final int REBUILD_BATCH_SIZE = 10000;
+
+    // Số phần tử tối đa của phần thêm và phần xóa trước khi gộp vào mảng chính
+    static final int MAX_PENDING = 4096;
+
+    // Giới hạn giá trị để phép cộng/trừ trên đơn vị nhỏ nhất không bị tràn số
+    private static final long LIMIT = 1L << 60;
+    private static final long MISSING = Long.MIN_VALUE;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Mảng chính, sắp xếp theo (giá, ID)
+    private long[] prices = new long[16];
+    private long[] ids = new long[16];
+    private int size;
+    // Sản phẩm thêm sau lần gộp cuối, chưa có trong mảng chính; sắp xếp theo (giá, ID)
+    private long[] addedPrices = new long[16];
+    private long[] addedIds = new long[16];
+    private int addedSize;
+    // Phần tử của mảng chính đã bị xóa hoặc đổi giá sau lần gộp cuối; sắp xếp theo (giá, ID)
+    private long[] removedPrices = new long[16];
+    private long[] removedIds = new long[16];
+    private int removedSize;
+    private final LongLongHashMap priceById = new LongLongHashMap();
+
+    // Các ID bị ghi trong lúc dựng lại; dòng đọc từ cơ sở dữ liệu cho các ID này đã cũ
+    private LongLongHashMap touchedDuringRebuild;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile boolean ready;
+
+    public ProductPriceIndex(@Value("${product.price.index.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Dựng lại toàn bộ chỉ mục từ cơ sở dữ liệu.
+     * Trong lúc dựng, {@link #isReady()} trả về {@code false} để các truy vấn quay về cơ sở dữ liệu.
+     */
+    public void rebuild() {
+        rebuild((afterId, limit) -> productRepository.findIndexRowsAfter(afterId, Limit.of(limit)));
+    }
+
+    /**
+     * Dựng lại toàn bộ chỉ mục từ một nguồn dòng cho trước.
+     *
+     * @param source Nguồn dòng theo thứ tự ID tăng dần.
+     */
+    public void rebuild(ProductIndexRowSource source) {
+        if (!enabled || !rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            lock.writeLock().lock();
+            try {
+                ready = false;
+                size = 0;
+                addedSize = 0;
+                removedSize = 0;
+                priceById.clear();
+                touchedDuringRebuild = new LongLongHashMap();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            long[] batchIds = new long[REBUILD_BATCH_SIZE];
+            long[] batchPrices = new long[REBUILD_BATCH_SIZE];
+            long lastId = Long.MIN_VALUE;
+            List<ProductIndexRow> rows;
+            do {
+                rows = source.rowsAfter(lastId, REBUILD_BATCH_SIZE);
+                lock.writeLock().lock();
+                try {
+                    int count = 0;
+                    for (ProductIndexRow row : rows) {
+                        if (row.getPrice() != null && !touchedDuringRebuild.containsKey(row.getId())) {
+                            batchIds[count] = row.getId();
+                            batchPrices[count] = toMinorUnits(row.getPrice(), RoundingMode.HALF_UP);
+                            count++;
+                        }
+                    }
+                    insertAll(batchIds, batchPrices, count);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (!rows.isEmpty()) {
+                    lastId = rows.get(rows.size() - 1).getId();
+                }
+            } while (rows.size() == REBUILD_BATCH_SIZE);
+
+            lock.writeLock().lock();
+            try {
+                touchedDuringRebuild = null;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Product price index built: {} products in {} ms", priceById.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Product price index rebuild failed, price queries fall back to the database", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Chỉ mục đã sẵn sàng phục vụ truy vấn hay chưa.
+     *
+     * @return {@code true} nếu chỉ mục đã được dựng đầy đủ.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Thêm hoặc cập nhật giá của sản phẩm trong chỉ mục.
+     *
+     * @param id    ID của sản phẩm.
+     * @param price Giá sản phẩm; {@code null} sẽ xóa sản phẩm khỏi chỉ mục.
+     */
+    public void index(Long id, BigDecimal price) {
+        if (!enabled || id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            markTouched(id);
+            unindex(id);
+            if (price != null) {
+                long minor = toMinorUnits(price, RoundingMode.HALF_UP);
+                priceById.put(id, minor);
+                int pos = position(addedPrices, addedIds, addedSize, minor, id);
+                addedPrices = insertAt(addedPrices, addedSize, pos, minor);
+                addedIds = insertAt(addedIds, addedSize, pos, id);
+                addedSize++;
+            }
+            compactIfFull();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Thêm hoặc cập nhật giá của nhiều sản phẩm, gộp vào mảng đã sắp xếp trong một lượt
+     * thay vì chèn từng phần tử.
+     *
+     * @param productIds    ID của các sản phẩm.
+     * @param productPrices Giá tương ứng; phần tử {@code null} sẽ xóa sản phẩm khỏi chỉ mục.
+     */
+    public void indexAll(long[] productIds, BigDecimal[] productPrices) {
+        if (!enabled || productIds.length == 0) {
+            return;
+        }
+        // Giữ giá cuối cùng nếu một ID xuất hiện nhiều lần
+        LongLongHashMap latest = new LongLongHashMap(productIds.length);
+        for (int i = 0; i < productIds.length; i++) {
+            latest.put(productIds[i], productPrices[i] == null
+                    ? MISSING
+                    : toMinorUnits(productPrices[i], RoundingMode.HALF_UP));
+        }
+        long[] batchIds = new long[productIds.length];
+        long[] batchPrices = new long[productIds.length];
+        lock.writeLock().lock();
+        try {
+            int count = 0;
+            for (long id : productIds) {
+                long price = latest.get(id, MISSING);
+                if (!latest.remove(id)) {
+                    continue;
+                }
+                markTouched(id);
+                unindex(id);
+                if (price != MISSING) {
+                    batchIds[count] = id;
+                    batchPrices[count] = price;
+                    count++;
+                }
+            }
+            insertAll(batchIds, batchPrices, count);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Xóa sản phẩm khỏi chỉ mục.
+     *
+     * @param id ID của sản phẩm.
+     */
+    public void remove(Long id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            markTouched(id);
+            unindex(id);
+            compactIfFull();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Kiểm tra giá của sản phẩm có nằm trong khoảng hay không.
+     *
+     * @param id       ID của sản phẩm.
+     * @param minPrice Giá tối thiểu (tùy chọn, bao gồm).
+     * @param maxPrice Giá tối đa (tùy chọn, bao gồm).
+     * @return {@code true} nếu sản phẩm có trong chỉ mục và giá nằm trong khoảng.
+     */
+    public boolean contains(long id, BigDecimal minPrice, BigDecimal maxPrice) {
+        long lo = lowerMinorUnits(minPrice);
+        long hi = upperMinorUnits(maxPrice);
+        lock.readLock().lock();
+        try {
+            long price = priceById.get(id, MISSING);
+            return price != MISSING && price >= lo && price <= hi;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Đếm số sản phẩm có giá trong khoảng, tương đương {@code countByPriceBetween}.
+     *
+     * @param minPrice Giá tối thiểu (tùy chọn, bao gồm).
+     * @param maxPrice Giá tối đa (tùy chọn, bao gồm).
+     * @return Số sản phẩm.
+     */
+    public long count(BigDecimal minPrice, BigDecimal maxPrice) {
+        long lo = lowerMinorUnits(minPrice);
+        long hi = upperMinorUnits(maxPrice);
+        if (lo > hi) {
+            return 0;
+        }
+        lock.readLock().lock();
+        try {
+            return countAtMost(hi) - countBelow(lo);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Phân bố số sản phẩm theo {@code buckets} khoảng giá bằng nhau.
+     * Khi không truyền giới hạn, dùng giá thấp nhất/cao nhất hiện có trong chỉ mục.
+     *
+     * @param minPrice Giá tối thiểu (tùy chọn, bao gồm).
+     * @param maxPrice Giá tối đa (tùy chọn, bao gồm).
+     * @param buckets  Số khoảng giá.
+     * @return Histogram giá.
+     */
+    public PriceHistogram histogram(BigDecimal minPrice, BigDecimal maxPrice, int buckets) {
+        long[] counts = new long[buckets];
+        lock.readLock().lock();
+        try {
+            if (liveSize() == 0 && (minPrice == null || maxPrice == null)) {
+                return new PriceHistogram(minPrice, maxPrice, null, counts, 0);
+            }
+            long lo = minPrice != null ? lowerMinorUnits(minPrice) : lowestPrice();
+            long hi = maxPrice != null ? upperMinorUnits(maxPrice) : highestPrice();
+            if (lo > hi) {
+                return new PriceHistogram(minPrice, maxPrice, null, counts, 0);
+            }
+            long width = (hi - lo + buckets) / buckets;
+            long start = countBelow(lo);
+            long first = start;
+            for (int i = 0; i < buckets; i++) {
+                long upper = Math.min(hi, lo + (i + 1) * width - 1);
+                long end = countAtMost(upper);
+                counts[i] = end - start;
+                start = end;
+            }
+            return new PriceHistogram(fromMinorUnits(lo), fromMinorUnits(hi), fromMinorUnits(width), counts,
+                    start - first);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Số sản phẩm trong chỉ mục.
+     *
+     * @return Số sản phẩm đã được lập chỉ mục.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveSize();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Chuyển giá sang đơn vị nhỏ nhất (ví dụ 199000.50 → 19900050).
+     */
+    static long toMinorUnits(BigDecimal price, RoundingMode roundingMode) {
+        BigDecimal minor = price.movePointRight(SCALE).setScale(0, roundingMode);
+        if (minor.compareTo(BigDecimal.valueOf(LIMIT)) > 0) {
+            return LIMIT;
+        }
+        if (minor.compareTo(BigDecimal.valueOf(-LIMIT)) < 0) {
+            return -LIMIT;
+        }
+        return minor.longValue();
+    }
+
+    static BigDecimal fromMinorUnits(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    // Giới hạn dưới của khoảng (bao gồm): làm tròn lên để không tính giá nhỏ hơn minPrice
+    private static long lowerMinorUnits(BigDecimal minPrice) {
+        return minPrice == null ? -LIMIT : toMinorUnits(minPrice, RoundingMode.CEILING);
+    }
+
+    // Giới hạn trên của khoảng (bao gồm): làm tròn xuống để không tính giá lớn hơn maxPrice
+    private static long upperMinorUnits(BigDecimal maxPrice) {
+        return maxPrice == null ? LIMIT : toMinorUnits(maxPrice, RoundingMode.FLOOR);
+    }
+
+    // Số sản phẩm hiện có (gọi khi đang giữ lock)
+    private int liveSize() {
+        return size - removedSize + addedSize;
+    }
+
+    // Số sản phẩm có giá < price (gọi khi đang giữ lock)
+    private long countBelow(long price) {
+        return lowerBound(prices, size, price) - lowerBound(removedPrices, removedSize, price)
+                + lowerBound(addedPrices, addedSize, price);
+    }
+
+    // Số sản phẩm có giá <= price (gọi khi đang giữ lock)
+    private long countAtMost(long price) {
+        return upperBound(prices, size, price) - upperBound(removedPrices, removedSize, price)
+                + upperBound(addedPrices, addedSize, price);
+    }
+
+    // Giá thấp nhất hiện có; phần xóa là tập con đã sắp xếp của mảng chính (gọi khi đang giữ lock)
+    private long lowestPrice() {
+        int i = 0;
+        while (i < size && i < removedSize && ids[i] == removedIds[i] && prices[i] == removedPrices[i]) {
+            i++;
+        }
+        long lowest = i < size ? prices[i] : Long.MAX_VALUE;
+        return addedSize > 0 ? Math.min(lowest, addedPrices[0]) : lowest;
+    }
+
+    // Giá cao nhất hiện có (gọi khi đang giữ lock)
+    private long highestPrice() {
+        int i = size - 1;
+        int r = removedSize - 1;
+        while (i >= 0 && r >= 0 && ids[i] == removedIds[r] && prices[i] == removedPrices[r]) {
+            i--;
+            r--;
+        }
+        long highest = i >= 0 ? prices[i] : Long.MIN_VALUE;
+        return addedSize > 0 ? Math.max(highest, addedPrices[addedSize - 1]) : highest;
+    }
+
+    // Vị trí đầu tiên có giá >= price
+    private static int lowerBound(long[] keys, int count, long price) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < price) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Vị trí đầu tiên có giá > price
+    private static int upperBound(long[] keys, int count, long price) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] <= price) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Vị trí đầu tiên có (giá, ID) >= (price, id)
+    private static int position(long[] keys, long[] values, int count, long price, long id) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(keys[mid], values[mid], price, id) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Chèn value vào vị trí pos của mảng đang có count phần tử, nới rộng nếu cần
+    private static long[] insertAt(long[] array, int count, int pos, long value) {
+        long[] target = count == array.length ? Arrays.copyOf(array, count << 1) : array;
+        System.arraycopy(array, pos, target, pos + 1, count - pos);
+        target[pos] = value;
+        return target;
+    }
+
+    // Gọi khi đang giữ write lock
+    private void unindex(long id) {
+        long price = priceById.get(id, MISSING);
+        if (price == MISSING) {
+            return;
+        }
+        priceById.remove(id);
+        int pos = position(addedPrices, addedIds, addedSize, price, id);
+        if (pos < addedSize && addedIds[pos] == id && addedPrices[pos] == price) {
+            // Chưa được gộp vào mảng chính: chỉ cần bỏ khỏi phần thêm
+            System.arraycopy(addedPrices, pos + 1, addedPrices, pos, addedSize - pos - 1);
+            System.arraycopy(addedIds, pos + 1, addedIds, pos, addedSize - pos - 1);
+            addedSize--;
+            return;
+        }
+        pos = position(removedPrices, removedIds, removedSize, price, id);
+        removedPrices = insertAt(removedPrices, removedSize, pos, price);
+        removedIds = insertAt(removedIds, removedSize, pos, id);
+        removedSize++;
+    }
+
+    // Gộp phần thêm và phần xóa vào mảng chính khi chúng đã đầy (gọi khi đang giữ write lock)
+    private void compactIfFull() {
+        if (addedSize + removedSize < MAX_PENDING) {
+            return;
+        }
+        // Bỏ các phần tử đã xóa trong một lượt; phần xóa là tập con đã sắp xếp của mảng chính
+        if (removedSize > 0) {
+            int w = 0;
+            int r = 0;
+            for (int i = 0; i < size; i++) {
+                if (r < removedSize && ids[i] == removedIds[r] && prices[i] == removedPrices[r]) {
+                    r++;
+                } else {
+                    prices[w] = prices[i];
+                    ids[w] = ids[i];
+                    w++;
+                }
+            }
+            size = w;
+            removedSize = 0;
+        }
+        int count = addedSize;
+        addedSize = 0;
+        merge(addedPrices, addedIds, count);
+    }
+
+    // Sắp xếp lô mới rồi trộn thẳng vào mảng chính.
+    // Gọi khi đang giữ write lock; các ID trong lô chưa có trong chỉ mục.
+    private void insertAll(long[] batchIds, long[] batchPrices, int count) {
+        if (count == 0) {
+            return;
+        }
+        sort(batchPrices, batchIds, count);
+        merge(batchPrices, batchIds, count);
+        for (int k = 0; k < count; k++) {
+            priceById.put(batchIds[k], batchPrices[k]);
+        }
+    }
+
+    // Trộn một lô đã sắp xếp vào mảng chính từ cuối mảng lên, không cấp phát mảng tạm cỡ toàn chỉ mục.
+    // Gọi khi đang giữ write lock.
+    private void merge(long[] batchPrices, long[] batchIds, int count) {
+        if (count == 0) {
+            return;
+        }
+        ensureCapacity(size + count);
+        int i = size - 1;
+        int j = count - 1;
+        for (int w = size + count - 1; j >= 0; w--) {
+            if (i >= 0 && compare(prices[i], ids[i], batchPrices[j], batchIds[j]) > 0) {
+                prices[w] = prices[i];
+                ids[w] = ids[i];
+                i--;
+            } else {
+                prices[w] = batchPrices[j];
+                ids[w] = batchIds[j];
+                j--;
+            }
+        }
+        size += count;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > prices.length) {
+            int grown = Math.max(capacity, prices.length + (prices.length >> 1));
+            prices = Arrays.copyOf(prices, grown);
+            ids = Arrays.copyOf(ids, grown);
+        }
+    }
+
+    private void markTouched(long id) {
+        if (touchedDuringRebuild != null) {
+            touchedDuringRebuild.put(id, 0);
+        }
+    }
+
+    private static int compare(long priceA, long idA, long priceB, long idB) {
+        int byPrice = Long.compare(priceA, priceB);
+        return byPrice != 0 ? byPrice : Long.compare(idA, idB);
+    }
+
+    // Sắp xếp trộn từ dưới lên trên hai mảng song song theo (giá, ID)
+    private static void sort(long[] keys, long[] values, int count) {
+        long[] tmpKeys = new long[count];
+        long[] tmpValues = new long[count];
+        for (int width = 1; width < count; width <<= 1) {
+            for (int from = 0; from < count; from += width << 1) {
+                int mid = Math.min(from + width, count);
+                int to = Math.min(from + (width << 1), count);
+                int left = from;
+                int right = mid;
+                for (int w = from; w < to; w++) {
+                    if (right >= to || (left < mid
+                            && compare(keys[left], values[left], keys[right], values[right]) <= 0)) {
+                        tmpKeys[w] = keys[left];
+                        tmpValues[w] = values[left++];
+                    } else {
+                        tmpKeys[w] = keys[right];
+                        tmpValues[w] = values[right++];
+                    }
+                }
+            }
+            System.arraycopy(tmpKeys, 0, keys, 0, count);
+            System.arraycopy(tmpValues, 0, values, 0, count);
+        }
+    }
+}
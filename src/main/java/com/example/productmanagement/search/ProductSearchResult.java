@@ -0,0 +1,12 @@
+package com.example.productmanagement.search;
+
+import java.util.List;
+
+/**
+ * Kết quả tìm kiếm từ chỉ mục tên sản phẩm.
+ *
+ * @param ids   ID của các sản phẩm trong trang yêu cầu, theo thứ tự tên.
+ * @param total Tổng số sản phẩm khớp.
+ */
+public record ProductSearchResult(List<Long> ids, long total) {
+}
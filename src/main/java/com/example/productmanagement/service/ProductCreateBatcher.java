@@ -0,0 +1,177 @@
+package com.example.productmanagement.service;
+
+import com.example.productmanagement.dto.ProductDTO;
+import com.example.productmanagement.exception.ServiceUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Gom các yêu cầu tạo sản phẩm đồng thời thành lô (group commit): một luồng nền lấy các
+ * sản phẩm từ hàng đợi có giới hạn và ghi cả lô trong một transaction khi đủ kích thước
+ * hoặc hết thời gian chờ, rồi hoàn thành future của từng người gọi.
+ * Khi hàng đợi đầy, người gọi chờ tối đa {@code offerTimeout} rồi bị từ chối (503).
+ */
+final class ProductCreateBatcher implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCreateBatcher.class);
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final BlockingQueue<Pending> queue;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final long offerTimeoutNanos;
+    // Ghi một lô trong một transaction, trả về các sản phẩm đã lưu theo cùng thứ tự
+    private final Function<List<ProductDTO>, List<ProductDTO>> saveBatch;
+
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    // virtualThread: chạy luồng nền trên virtual thread (theo spring.threads.virtual.enabled)
+    ProductCreateBatcher(int queueCapacity, int maxBatchSize, Duration maxDelay, Duration offerTimeout,
+            boolean virtualThread, Function<List<ProductDTO>, List<ProductDTO>> saveBatch) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.saveBatch = saveBatch;
+        Thread.Builder builder = virtualThread ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        this.worker = builder.name("product-create-batcher").unstarted(this::run);
+    }
+
+    void start() {
+        worker.start();
+    }
+
+    /**
+     * Đưa sản phẩm vào hàng đợi ghi.
+     *
+     * @param product DTO của sản phẩm mới.
+     * @return Future hoàn thành với sản phẩm đã lưu (có ID) sau khi lô được commit.
+     * @throws ServiceUnavailableException Nếu hàng đợi vẫn đầy sau thời gian chờ hoặc đã dừng.
+     */
+    CompletableFuture<ProductDTO> submit(ProductDTO product) {
+        if (!running) {
+            throw new ServiceUnavailableException("Product create queue is shut down");
+        }
+        Pending pending = new Pending(product, new CompletableFuture<>());
+        try {
+            if (!queue.offer(pending, offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new ServiceUnavailableException("Product create queue is full, retry later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for the product create queue");
+        }
+        // Đã dừng trong lúc chờ: luồng nền có thể đã thoát và sẽ không ghi yêu cầu này
+        if (!running && queue.remove(pending)) {
+            throw new ServiceUnavailableException("Product create queue is shut down");
+        }
+        return pending.future();
+    }
+
+    /**
+     * Số sản phẩm đang chờ ghi.
+     *
+     * @return Kích thước hiện tại của hàng đợi.
+     */
+    int queued() {
+        return queue.size();
+    }
+
+    /**
+     * Ngừng nhận yêu cầu mới, ghi nốt các sản phẩm còn trong hàng đợi rồi dừng luồng nền.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Yêu cầu lọt vào sau khi luồng nền đã thoát
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future().completeExceptionally(
+                    new ServiceUnavailableException("Product create queue is shut down"));
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        boolean interrupted = false;
+        while (!interrupted && (running || !queue.isEmpty())) {
+            try {
+                Pending first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Gom thêm cho tới khi đủ lô hoặc hết thời gian chờ tính từ yêu cầu đầu tiên
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Ghi nốt lô đang gom rồi thoát; phần còn lại trong hàng đợi bị từ chối ở close()
+                interrupted = true;
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        List<ProductDTO> products = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            products.add(pending.product());
+        }
+        List<ProductDTO> saved;
+        try {
+            saved = saveBatch.apply(products);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).future().completeExceptionally(e);
+                return;
+            }
+            // Một sản phẩm lỗi không được làm hỏng cả lô: ghi lại từng sản phẩm trong transaction riêng
+            log.debug("Create batch of {} products failed, retrying one by one", batch.size(), e);
+            for (Pending pending : batch) {
+                try {
+                    pending.future().complete(saveBatch.apply(List.of(pending.product())).get(0));
+                } catch (RuntimeException single) {
+                    pending.future().completeExceptionally(single);
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).future().complete(saved.get(i));
+        }
+    }
+
+    private record Pending(ProductDTO product, CompletableFuture<ProductDTO> future) {
+    }
+}
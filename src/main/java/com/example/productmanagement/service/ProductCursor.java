@@ -0,0 +1,61 @@
+package com.example.productmanagement.service;
+
+import com.example.productmanagement.exception.InvalidRequestException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Mã hóa/giải mã con trỏ phân trang keyset cho danh sách sản phẩm.
+ * Con trỏ là chuỗi Base64 (URL-safe) chứa cặp (name, id) của dòng cuối cùng
+ * của trang trước; client chỉ cần gửi lại nguyên văn.
+ */
+final class ProductCursor {
+
+    private static final char SEPARATOR = ':';
+
+    private ProductCursor() {
+    }
+
+    /**
+     * Tạo con trỏ từ khóa của dòng cuối cùng.
+     * 
+     * @param name Tên sản phẩm.
+     * @param id   ID của sản phẩm.
+     * @return Con trỏ dạng chuỗi.
+     */
+    static String encode(String name, Long id) {
+        String raw = id + String.valueOf(SEPARATOR) + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Chuyển con trỏ thành vị trí cuộn keyset.
+     * 
+     * @param cursor Con trỏ do {@link #encode(String, Long)} tạo ra, hoặc {@code null}.
+     * @return Vị trí bắt đầu nếu con trỏ rỗng, ngược lại là vị trí ngay sau khóa đã mã hóa.
+     * @throws InvalidRequestException Nếu con trỏ không hợp lệ.
+     */
+    static KeysetScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            Long id = Long.valueOf(raw.substring(0, separator));
+            String name = raw.substring(separator + 1);
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("name", name);
+            keys.put("id", id);
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.productmanagement.service;
+
+import com.example.productmanagement.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Con trỏ đồng bộ tăng dần: vị trí keyset trong luồng sản phẩm thay đổi (updatedAt, id)
+ * và trong luồng dấu xóa (deletedAt, productId).
+ * Được mã hóa thành chuỗi Base64 (URL-safe); client chỉ cần gửi lại nguyên văn.
+ *
+ * @param changedAt Thời điểm cập nhật của sản phẩm thay đổi cuối cùng đã trả về.
+ * @param changedId ID của sản phẩm đó.
+ * @param deletedAt Thời điểm xóa của dấu xóa cuối cùng đã trả về.
+ * @param deletedId ID sản phẩm của dấu xóa đó.
+ */
+record ProductDeltaCursor(LocalDateTime changedAt, long changedId, LocalDateTime deletedAt, long deletedId) {
+
+    private static final char SEPARATOR = ',';
+
+    /**
+     * Vị trí bắt đầu cho lần đồng bộ đầu tiên: mọi thay đổi và mọi lần xóa sau {@code since}.
+     * 
+     * @param since Thời điểm đồng bộ gần nhất của client.
+     * @return Con trỏ bắt đầu.
+     */
+    static ProductDeltaCursor since(LocalDateTime since) {
+        return new ProductDeltaCursor(since, Long.MAX_VALUE, since, Long.MAX_VALUE);
+    }
+
+    /**
+     * Chuyển con trỏ thành chuỗi.
+     * 
+     * @return Con trỏ dạng chuỗi.
+     */
+    String encode() {
+        String raw = changedAt + String.valueOf(SEPARATOR) + changedId + SEPARATOR + deletedAt + SEPARATOR + deletedId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Giải mã con trỏ do {@link #encode()} tạo ra.
+     * 
+     * @param cursor Con trỏ dạng chuỗi.
+     * @return Con trỏ.
+     * @throws InvalidRequestException Nếu con trỏ không hợp lệ.
+     */
+    static ProductDeltaCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(String.valueOf(SEPARATOR), -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Expected 4 parts");
+            }
+            return new ProductDeltaCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]),
+                    LocalDateTime.parse(parts[2]), Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
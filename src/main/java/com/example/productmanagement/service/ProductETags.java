@@ -0,0 +1,98 @@
+package com.example.productmanagement.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Tạo và so khớp ETag cho sản phẩm.
+ * ETag của một sản phẩm có dạng {@code <id>-<version>-<updatedAt>}; ETag của danh sách
+ * được tạo từ phiên bản danh mục, thời điểm cập nhật gần nhất và thời điểm xóa gần nhất của bảng.
+ * <p>
+ * Phản hồi GET dùng ETag yếu ({@code W/"..."}): cùng dữ liệu có thể được trả về dạng JSON,
+ * Smile hoặc CBOR và được Tomcat nén gzip (Tomcat không nén phản hồi có ETag mạnh), nên các
+ * biểu diễn chỉ tương đương về ngữ nghĩa chứ không giống nhau từng byte. {@code If-Match}
+ * so khớp theo giá trị bên trong dấu nháy, nên client gửi lại ETag nhận được từ GET vẫn khớp.
+ */
+public final class ProductETags {
+
+    private ProductETags() {
+    }
+
+    /**
+     * ETag của một sản phẩm (chưa có dấu nháy kép).
+     * 
+     * @param id        ID của sản phẩm.
+     * @param version   Phiên bản của sản phẩm.
+     * @param updatedAt Thời điểm cập nhật gần nhất.
+     * @return Giá trị ETag.
+     */
+    public static String of(Long id, Long version, LocalDateTime updatedAt) {
+        return id + "-" + (version == null ? 0 : version) + "-" + toMicros(updatedAt);
+    }
+
+    /**
+     * ETag của danh sách sản phẩm (chưa có dấu nháy kép).
+     * 
+     * @param catalogVersion Phiên bản danh mục ({@code null} nếu dòng bộ đếm chưa được tạo).
+     * @param lastUpdatedAt  Thời điểm cập nhật gần nhất trong bảng.
+     * @param lastDeletedAt  Thời điểm xóa sản phẩm gần nhất.
+     * @return Giá trị ETag.
+     */
+    public static String ofListing(Long catalogVersion, LocalDateTime lastUpdatedAt, LocalDateTime lastDeletedAt) {
+        return "list-" + (catalogVersion == null ? 0 : catalogVersion) + "-" + toMicros(lastUpdatedAt) + "-"
+                + toMicros(lastDeletedAt);
+    }
+
+    /**
+     * ETag yếu dùng trong phản hồi GET.
+     * 
+     * @param etag Giá trị ETag (chưa có dấu nháy kép).
+     * @return ETag dạng {@code W/"<etag>"}.
+     */
+    public static String weak(String etag) {
+        return "W/\"" + etag + "\"";
+    }
+
+    /**
+     * Kiểm tra giá trị header {@code If-Match} có khớp với ETag hiện tại hay không.
+     * 
+     * @param ifMatch Giá trị header (có thể gồm nhiều ETag, phân tách bằng dấu phẩy, hoặc {@code *}).
+     * @param current ETag hiện tại (chưa có dấu nháy kép).
+     * @return {@code true} nếu khớp.
+     */
+    public static boolean matches(String ifMatch, String current) {
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            // GET trả ETag yếu, nên so khớp theo giá trị bên trong dấu nháy (bỏ tiền tố W/)
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")
+                    && tag.substring(1, tag.length() - 1).equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lấy phiên bản từ ETag của một sản phẩm.
+     * 
+     * @param etag ETag do {@link #of(Long, Long, LocalDateTime)} tạo ra.
+     * @return Phiên bản của sản phẩm.
+     */
+    public static Long versionOf(String etag) {
+        String[] parts = etag.split("-");
+        return Long.valueOf(parts[1]);
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        if (time == null) {
+            return 0;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+}
@@ -1,30 +1,244 @@
 package com.example.productmanagement.service;
 
+import com.example.productmanagement.cache.ProductCache;
+import com.example.productmanagement.cache.ProductCacheStats;
+import com.example.productmanagement.cache.ProductCountCache;
+import com.example.productmanagement.dto.BulkDeleteResultDTO;
+import com.example.productmanagement.dto.BulkImportResultDTO;
+import com.example.productmanagement.dto.CursorPageDTO;
+import com.example.productmanagement.dto.ImportChunkResultDTO;
 import com.example.productmanagement.dto.ProductDTO;
+import com.example.productmanagement.dto.ProductDeltaDTO;
+import com.example.productmanagement.dto.ProductField;
+import com.example.productmanagement.dto.ProductSummaryDTO;
+import com.example.productmanagement.dto.SliceDTO;
 import com.example.productmanagement.entity.Product;
+import com.example.productmanagement.entity.ProductCatalogVersion;
+import com.example.productmanagement.entity.ProductTombstone;
+import com.example.productmanagement.feed.ProductChangeFeed;
+import com.example.productmanagement.feed.ProductChangeType;
+import com.example.productmanagement.exception.InvalidRequestException;
+import com.example.productmanagement.exception.PreconditionFailedException;
+import com.example.productmanagement.exception.ResourceConflictException;
+import com.example.productmanagement.exception.ResourceGoneException;
 import com.example.productmanagement.exception.ResourceNotFoundException;
+import com.example.productmanagement.exception.ServiceUnavailableException;
+import com.example.productmanagement.repository.ProductCatalogVersionRepository;
 import com.example.productmanagement.repository.ProductRepository;
+import com.example.productmanagement.repository.ProductStamp;
+import com.example.productmanagement.repository.ProductTableStamp;
+import com.example.productmanagement.repository.ProductTombstoneRepository;
+import com.example.productmanagement.search.PriceHistogram;
+import com.example.productmanagement.search.ProductFacetIndex;
+import com.example.productmanagement.search.ProductFacets;
+import com.example.productmanagement.search.ProductIndexVersions;
+import com.example.productmanagement.search.ProductNameIndex;
+import com.example.productmanagement.search.ProductPriceIndex;
+import com.example.productmanagement.search.ProductSearchResult;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.hibernate.jpa.SpecHints;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Dịch vụ cho sản phẩm.
  * Cung cấp các phương thức nghiệp vụ để thao tác với sản phẩm.
+ * Mỗi phương thức public được đo thời gian trong số liệu {@code product.service}
+ * (tag {@code method}, {@code exception}).
  */
 @Service
+@Timed(value = "product.service", description = "Thời gian thực hiện các thao tác của ProductService")
 public class ProductService {
 
+    private static final Logger log = LoggerFactory.getLogger(ProductService.class);
+
+    // Số ID trong mỗi câu lệnh DELETE ... IN (dưới giới hạn 2100 tham số của SQL Server)
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
+    // Thứ tự keyset: tên, sau đó ID để phân biệt các sản phẩm trùng tên
+    private static final Sort KEYSET_SORT = Sort.by("name").ascending().and(Sort.by("id").ascending());
+
     @Autowired
     private ProductRepository productRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ProductTombstoneRepository productTombstoneRepository;
+
+    @Autowired
+    private ProductCatalogVersionRepository productCatalogVersionRepository;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductCountCache productCountCache;
+
+    @Autowired
+    private ProductNameIndex productNameIndex;
+
+    @Autowired
+    private ProductPriceIndex productPriceIndex;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ProductIndexVersions productIndexVersions;
+
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${product.import.chunk-size:1000}")
+    private int importChunkSize;
+
+    @Value("${product.delta.tombstone-retention:P30D}")
+    private Duration tombstoneRetention;
+
+    @Value("${product.delta.settle-time:PT5S}")
+    private Duration deltaSettleTime;
+
+    @Value("${product.coalesce.enabled:true}")
+    private boolean coalesceEnabled;
+
+    @Value("${product.create.batch.enabled:false}")
+    private boolean createBatchEnabled;
+
+    @Value("${product.create.batch.queue-capacity:10000}")
+    private int createQueueCapacity;
+
+    @Value("${product.create.batch.max-size:500}")
+    private int createBatchMaxSize;
+
+    @Value("${product.create.batch.max-delay:PT0.005S}")
+    private Duration createBatchMaxDelay;
+
+    @Value("${product.create.batch.offer-timeout:PT0.1S}")
+    private Duration createOfferTimeout;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Chỉ khác null khi bật chế độ gom lô cho thao tác tạo mới
+    private ProductCreateBatcher createBatcher;
+
+    // Gộp các lời gọi đọc đồng thời giống nhau thành một truy vấn (xem SingleFlight)
+    private SingleFlight<Long, ProductDTO> productFlights;
+    private SingleFlight<ListKey, Page<ProductDTO>> pageFlights;
+    private SingleFlight<ListKey, SliceDTO<ProductDTO>> sliceFlights;
+    private SingleFlight<ListKey, SliceDTO<ProductSummaryDTO>> summaryFlights;
+
+    // Bộ đếm thời gian product.list.query theo nhánh lọc, đăng ký một lần khi khởi tạo
+    private Map<String, Timer> listQueryTimers;
+
+    @PostConstruct
+    void initListQueryTimers() {
+        listQueryTimers = Stream.of("name_price", "name", "price", "all")
+                .collect(Collectors.toUnmodifiableMap(Function.identity(), branch -> Timer
+                        .builder("product.list.query")
+                        .description("Thời gian truy vấn danh sách sản phẩm theo nhánh lọc")
+                        .tag("branch", branch)
+                        .register(meterRegistry)));
+    }
+
+    // Tạo dòng bộ đếm phiên bản danh mục nếu chưa có (bảng được tạo bởi ddl-auto)
+    @PostConstruct
+    void initCatalogVersion() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!productCatalogVersionRepository.existsById(ProductCatalogVersion.ID)) {
+                    productCatalogVersionRepository.saveAndFlush(
+                            new ProductCatalogVersion(ProductCatalogVersion.ID, 0));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Một instance khác vừa tạo dòng này
+            log.debug("Catalog version row already created: {}", e.getMessage());
+        }
+    }
+
+    @PostConstruct
+    void initCoalescing() {
+        productFlights = new SingleFlight<>("get", coalesceEnabled, ProductDTO::new, meterRegistry);
+        pageFlights = new SingleFlight<>("list", coalesceEnabled, page -> page.map(ProductDTO::new), meterRegistry);
+        sliceFlights = new SingleFlight<>("slice", coalesceEnabled, slice -> slice.copy(ProductDTO::new),
+                meterRegistry);
+        summaryFlights = new SingleFlight<>("summary", coalesceEnabled, slice -> slice.copy(ProductSummaryDTO::new),
+                meterRegistry);
+    }
+
+    @PostConstruct
+    void startCreateBatcher() {
+        if (!createBatchEnabled) {
+            return;
+        }
+        createBatcher = new ProductCreateBatcher(createQueueCapacity, createBatchMaxSize, createBatchMaxDelay,
+                createOfferTimeout, virtualThreads, this::saveCreateBatch);
+        Gauge.builder("product.create.queue.size", createBatcher, ProductCreateBatcher::queued)
+                .description("Số sản phẩm đang chờ ghi theo lô")
+                .register(meterRegistry);
+        createBatcher.start();
+    }
+
+    @PreDestroy
+    void stopCreateBatcher() {
+        if (createBatcher != null) {
+            createBatcher.close();
+        }
+    }
+
     /**
      * Lấy danh sách tất cả sản phẩm với phân trang và lọc.
      * 
@@ -36,88 +250,962 @@ public class ProductService {
      * @return Danh sách sản phẩm theo các tiêu chí lọc và phân trang.
      */
     public Page<ProductDTO> getAllProducts(String name, BigDecimal minPrice, BigDecimal maxPrice, int page, int size) {
+        // Không mở transaction ở đây: các lời gọi chờ kết quả chung không được giữ kết nối
+        return pageFlights.execute(ListKey.of(name, minPrice, maxPrice, page, size, false),
+                () -> loadAllProducts(name, minPrice, maxPrice, page, size));
+    }
+
+    private Page<ProductDTO> loadAllProducts(String name, BigDecimal minPrice, BigDecimal maxPrice, int page,
+            int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("name").ascending());
+
+        // Chiếu thẳng vào DTO: không tạo entity và không chép từng trường qua convertToDTO
+        if (name != null && minPrice != null && maxPrice != null) {
+            return timeListQuery("name_price",
+                    () -> productRepository.findDtoByNameAndPrice(name, minPrice, maxPrice, pageable));
+        } else if (name != null) {
+            return timeListQuery("name", () -> productRepository.findDtoByName(name, pageable));
+        } else if (minPrice != null && maxPrice != null) {
+            if (productPriceIndex.isReady()) {
+                // Tổng số lấy từ chỉ mục giá, bỏ qua câu COUNT trên cơ sở dữ liệu
+                return timeListQuery("price", () -> new PageImpl<>(
+                        productRepository.findDtoSliceByPrice(minPrice, maxPrice, pageable).getContent(),
+                        pageable, productPriceIndex.count(minPrice, maxPrice)));
+            }
+            return timeListQuery("price", () -> productRepository.findDtoByPrice(minPrice, maxPrice, pageable));
+        }
+        return timeListQuery("all", () -> productRepository.findAllDto(pageable));
+    }
+
+    /**
+     * Tìm sản phẩm theo chuỗi con trong tên bằng chỉ mục trigram trong bộ nhớ,
+     * tùy chọn lọc theo khoảng giá. Chỉ các sản phẩm của trang kết quả được đọc
+     * từ cơ sở dữ liệu, trong một truy vấn duy nhất.
+     * Nếu chỉ mục chưa sẵn sàng, quay về truy vấn chiếu DTO trên cơ sở dữ liệu, với cùng
+     * cách hiểu khoảng giá một phía như chỉ mục.
+     * Thứ tự của hai đường không hoàn toàn giống nhau: chỉ mục sắp theo tên viết thường
+     * ({@code Locale.ROOT}, so sánh theo mã ký tự) rồi theo ID, còn truy vấn dự phòng sắp theo collation
+     * của cột {@code name} rồi theo ID. Tên khác nhau ở chữ hoa/thường hoặc dấu có thể đổi chỗ, nên trang
+     * kết quả có thể lệch khi chỉ mục vừa sẵn sàng giữa hai lần lấy trang.
+     * 
+     * @param name     Chuỗi con của tên sản phẩm.
+     * @param minPrice Giá tối thiểu để lọc.
+     * @param maxPrice Giá tối đa để lọc.
+     * @param page     Số trang.
+     * @param size     Kích thước trang.
+     * @return Trang sản phẩm theo thứ tự tên.
+     */
+    public Page<ProductDTO> searchProducts(String name, BigDecimal minPrice, BigDecimal maxPrice, int page,
+            int size) {
+        if (!productNameIndex.isReady()) {
+            // Như chỉ mục: cận giá bỏ trống nghĩa là không giới hạn phía đó
+            return productRepository.findDtoByNameAndPriceRange(name, minPrice, maxPrice,
+                    PageRequest.of(page, size, KEYSET_SORT));
+        }
+        ProductSearchResult result = productNameIndex.search(name, minPrice, maxPrice, page * size, size);
+        Map<Long, Product> products = productRepository.findAllById(result.ids()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<ProductDTO> content = new ArrayList<>(result.ids().size());
+        for (Long id : result.ids()) {
+            Product product = products.get(id);
+            // Sản phẩm có thể vừa bị xóa giữa lúc tìm kiếm và lúc đọc
+            if (product != null) {
+                content.add(convertToDTO(product));
+            }
+        }
+        return new PageImpl<>(content, PageRequest.of(page, size, Sort.by("name").ascending()), result.total());
+    }
+
+    /**
+     * Lấy một lát sản phẩm với phân trang và lọc, không chạy truy vấn COUNT(*).
+     * Nếu {@code withTotal} bật, tổng số được lấy từ bộ nhớ đệm đếm (xấp xỉ trong
+     * khoảng TTL) thay vì đếm lại cho mỗi trang.
+     * 
+     * @param name      Tên sản phẩm để lọc.
+     * @param minPrice  Giá tối thiểu để lọc.
+     * @param maxPrice  Giá tối đa để lọc.
+     * @param page      Số trang.
+     * @param size      Kích thước trang.
+     * @param withTotal Có kèm tổng số xấp xỉ hay không.
+     * @return Lát sản phẩm theo các tiêu chí lọc và phân trang.
+     */
+    public SliceDTO<ProductDTO> getProductSlice(String name, BigDecimal minPrice, BigDecimal maxPrice, int page,
+            int size, boolean withTotal) {
+        return sliceFlights.execute(ListKey.of(name, minPrice, maxPrice, page, size, withTotal),
+                () -> loadProductSlice(name, minPrice, maxPrice, page, size, withTotal));
+    }
+
+    private SliceDTO<ProductDTO> loadProductSlice(String name, BigDecimal minPrice, BigDecimal maxPrice, int page,
+            int size, boolean withTotal) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("name").ascending());
 
-        Page<Product> productPage;
+        // Chiếu thẳng vào DTO như getAllProducts: không tạo entity cho các trang danh sách
+        Slice<ProductDTO> productSlice;
 
         if (name != null && minPrice != null && maxPrice != null) {
-            productPage = productRepository.findByNameContainingIgnoreCaseAndPriceBetween(name, minPrice, maxPrice,
-                    pageable);
+            productSlice = productRepository.findDtoSliceByNameAndPrice(name, minPrice, maxPrice, pageable);
         } else if (name != null) {
-            productPage = productRepository.findByNameContainingIgnoreCase(name, pageable);
+            productSlice = productRepository.findDtoSliceByName(name, pageable);
         } else if (minPrice != null && maxPrice != null) {
-            productPage = productRepository.findByPriceBetween(minPrice, maxPrice, pageable);
+            productSlice = productRepository.findDtoSliceByPrice(minPrice, maxPrice, pageable);
         } else {
-            productPage = productRepository.findAll(pageable);
+            productSlice = productRepository.findAllDtoSlice(pageable);
         }
 
-        return productPage.map(this::convertToDTO);
+        Long total = withTotal ? countProducts(name, minPrice, maxPrice) : null;
+        return new SliceDTO<>(productSlice.getContent(), page, size, productSlice.hasNext(), total);
+    }
+
+    /**
+     * Lấy một trang sản phẩm chỉ với các trường đã chọn, lọc như {@link #getProductSlice}.
+     * Chỉ các cột tương ứng được đọc từ cơ sở dữ liệu và không chạy truy vấn COUNT(*).
+     * 
+     * @param name     Tên sản phẩm để lọc.
+     * @param minPrice Giá tối thiểu để lọc.
+     * @param maxPrice Giá tối đa để lọc.
+     * @param page     Số trang.
+     * @param size     Kích thước trang.
+     * @param fields   Các trường cần lấy.
+     * @return Mỗi sản phẩm là một bản đồ tên trường → giá trị.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getProductFields(String name, BigDecimal minPrice, BigDecimal maxPrice,
+            int page, int size, Set<ProductField> fields) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("name").ascending());
+        return productRepository.findFields(fields, name, minPrice, maxPrice, pageable);
+    }
+
+    /**
+     * Lấy một lát sản phẩm dạng rút gọn (không có mô tả và ảnh) với phân trang và lọc.
+     * Chỉ các cột hẹp được đọc từ cơ sở dữ liệu và không chạy truy vấn COUNT(*).
+     * 
+     * @param name     Tên sản phẩm để lọc.
+     * @param minPrice Giá tối thiểu để lọc.
+     * @param maxPrice Giá tối đa để lọc.
+     * @param page     Số trang.
+     * @param size     Kích thước trang.
+     * @return Lát sản phẩm rút gọn theo các tiêu chí lọc và phân trang.
+     */
+    public SliceDTO<ProductSummaryDTO> getProductSummaries(String name, BigDecimal minPrice, BigDecimal maxPrice,
+            int page, int size) {
+        return summaryFlights.execute(ListKey.of(name, minPrice, maxPrice, page, size, false),
+                () -> loadProductSummaries(name, minPrice, maxPrice, page, size));
+    }
+
+    private SliceDTO<ProductSummaryDTO> loadProductSummaries(String name, BigDecimal minPrice, BigDecimal maxPrice,
+            int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("name").ascending());
+
+        Slice<ProductSummaryDTO> summaries;
+
+        if (name != null && minPrice != null && maxPrice != null) {
+            summaries = productRepository.findSummaryByNameAndPrice(name, minPrice, maxPrice, pageable);
+        } else if (name != null) {
+            summaries = productRepository.findSummaryByName(name, pageable);
+        } else if (minPrice != null && maxPrice != null) {
+            summaries = productRepository.findSummaryByPrice(minPrice, maxPrice, pageable);
+        } else {
+            summaries = productRepository.findAllSummaries(pageable);
+        }
+
+        return new SliceDTO<>(summaries.getContent(), page, size, summaries.hasNext(), null);
+    }
+
+    /**
+     * Lấy danh sách sản phẩm theo con trỏ (keyset) với cùng các tiêu chí lọc như
+     * {@link #getAllProducts(String, BigDecimal, BigDecimal, int, int)}.
+     * 
+     * @param name     Tên sản phẩm để lọc.
+     * @param minPrice Giá tối thiểu để lọc.
+     * @param maxPrice Giá tối đa để lọc.
+     * @param after    Con trỏ {@code nextCursor} của trang trước, hoặc {@code null} cho trang đầu.
+     * @param size     Kích thước trang.
+     * @return Trang sản phẩm kèm con trỏ của trang tiếp theo.
+     */
+    public CursorPageDTO<ProductDTO> getProductsAfter(String name, BigDecimal minPrice, BigDecimal maxPrice,
+            String after, int size) {
+        KeysetScrollPosition position = ProductCursor.decode(after);
+        Limit limit = Limit.of(size);
+
+        Window<Product> window;
+
+        if (name != null && minPrice != null && maxPrice != null) {
+            window = productRepository.findByNameContainingIgnoreCaseAndPriceBetween(name, minPrice, maxPrice,
+                    position, KEYSET_SORT, limit);
+        } else if (name != null) {
+            window = productRepository.findByNameContainingIgnoreCase(name, position, KEYSET_SORT, limit);
+        } else if (minPrice != null && maxPrice != null) {
+            window = productRepository.findByPriceBetween(minPrice, maxPrice, position, KEYSET_SORT, limit);
+        } else {
+            window = productRepository.findAllBy(position, KEYSET_SORT, limit);
+        }
+
+        List<ProductDTO> content = window.map(this::convertToDTO).getContent();
+        String nextCursor = null;
+        if (window.hasNext() && !content.isEmpty()) {
+            ProductDTO last = content.get(content.size() - 1);
+            nextCursor = ProductCursor.encode(last.getName(), last.getId());
+        }
+        return new CursorPageDTO<>(content, content.size(), window.hasNext(), nextCursor);
+    }
+
+    /**
+     * Xuất toàn bộ sản phẩm khớp với bộ lọc, lần lượt từng sản phẩm.
+     * Đọc bằng luồng forward-only và tách (detach) từng entity sau khi chuyển đổi,
+     * nên bộ nhớ sử dụng không phụ thuộc vào số dòng.
+     * 
+     * @param name     Tên sản phẩm để lọc.
+     * @param minPrice Giá tối thiểu để lọc.
+     * @param maxPrice Giá tối đa để lọc.
+     * @param category Danh mục để lọc.
+     * @param sink     Nơi nhận từng sản phẩm.
+     * @return Số sản phẩm đã xuất.
+     */
+    @Transactional(readOnly = true)
+    public long exportProducts(String name, BigDecimal minPrice, BigDecimal maxPrice, String category,
+            Consumer<ProductDTO> sink) {
+        long count = 0;
+        try (Stream<Product> products = productRepository.streamForExport(name, minPrice, maxPrice, category)) {
+            for (Product product : (Iterable<Product>) products::iterator) {
+                sink.accept(convertToDTO(product));
+                entityManager.detach(product);
+                count++;
+            }
+        }
+        return count;
     }
 
     /**
      * Lấy sản phẩm theo ID.
+     * Khi trượt bộ nhớ đệm, các lời gọi đồng thời cho cùng ID dùng chung một truy vấn.
      * 
      * @param id ID của sản phẩm.
      * @return DTO của sản phẩm.
      * @throws ResourceNotFoundException Nếu không tìm thấy sản phẩm.
      */
     public ProductDTO getProductById(Long id) {
-        Product product = productRepository.findById(id)
+        ProductDTO cached = productCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        return productFlights.execute(id, () -> {
+            long epoch = productCache.currentEpoch();
+            // Sản phẩm đọc để hiển thị đã nằm trong ProductCache, không lưu thêm vào second-level cache
+            Product product = entityManager.find(Product.class, id,
+                    Map.of(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS));
+            if (product == null) {
+                throw new ResourceNotFoundException("Product not found with ID: " + id);
+            }
+            ProductDTO productDTO = convertToDTO(product);
+            productCache.fill(productDTO, epoch);
+            return productDTO;
+        });
+    }
+
+    /**
+     * Lấy các trường đã chọn của một sản phẩm: từ bộ nhớ đệm nếu có, nếu không thì chỉ
+     * đọc các cột tương ứng từ cơ sở dữ liệu.
+     * 
+     * @param id     ID của sản phẩm.
+     * @param fields Các trường cần lấy.
+     * @return Bản đồ tên trường → giá trị.
+     * @throws ResourceNotFoundException Nếu không tìm thấy sản phẩm.
+     */
+    public Map<String, Object> getProductFields(Long id, Set<ProductField> fields) {
+        ProductDTO cached = productCache.get(id);
+        if (cached != null) {
+            return ProductField.project(cached, fields);
+        }
+        return productRepository.findFieldsById(id, fields)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + id));
-        return convertToDTO(product);
+    }
+
+    /**
+     * Lấy ETag của sản phẩm mà không đọc cả dòng: từ bộ nhớ đệm nếu có, nếu không
+     * thì chỉ đọc các cột phiên bản.
+     * 
+     * @param id ID của sản phẩm.
+     * @return ETag (chưa có dấu nháy kép).
+     * @throws ResourceNotFoundException Nếu không tìm thấy sản phẩm.
+     */
+    public String getProductETag(Long id) {
+        ProductDTO cached = productCache.get(id);
+        if (cached != null) {
+            return ProductETags.of(cached.getId(), cached.getVersion(), cached.getUpdatedAt());
+        }
+        return currentETag(id);
+    }
+
+    /**
+     * Lấy ETag chung cho các danh sách sản phẩm, tạo từ phiên bản danh mục (tăng trong mỗi transaction
+     * tạo, sửa hoặc xóa sản phẩm), thời điểm cập nhật gần nhất của bảng và thời điểm xóa gần nhất.
+     * Riêng hai thời điểm không đủ: {@code updatedAt} được gán trước khi commit, nên một transaction
+     * commit muộn với thời điểm cũ hơn không làm đổi giá trị lớn nhất.
+     * 
+     * @return ETag (chưa có dấu nháy kép).
+     */
+    public String getListingETag() {
+        ProductTableStamp stamp = productRepository.findTableStamp();
+        return ProductETags.ofListing(stamp.getCatalogVersion(), stamp.getLastUpdatedAt(), stamp.getLastDeletedAt());
+    }
+
+    /**
+     * Kiểm tra header {@code If-Match} với phiên bản hiện tại trong cơ sở dữ liệu.
+     * 
+     * @param id      ID của sản phẩm.
+     * @param ifMatch Giá trị header, hoặc {@code null} nếu không có.
+     * @return Phiên bản mà client mong đợi (để kiểm tra lại khi ghi), hoặc {@code null}
+     *         nếu không có điều kiện.
+     * @throws ResourceNotFoundException   Nếu không tìm thấy sản phẩm.
+     * @throws PreconditionFailedException Nếu ETag không khớp.
+     */
+    public Long checkIfMatch(Long id, String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        String current = currentETag(id);
+        if (!ProductETags.matches(ifMatch, current)) {
+            throw new PreconditionFailedException("ETag does not match for product " + id);
+        }
+        return ifMatch.trim().equals("*") ? null : ProductETags.versionOf(current);
     }
 
     /**
      * Tạo mới sản phẩm.
+     * Khi bật {@code product.create.batch.enabled}, sản phẩm được đưa vào hàng đợi và ghi
+     * cùng các yêu cầu đồng thời khác trong một transaction; phương thức chờ tới khi lô được commit.
      * 
      * @param productDTO DTO của sản phẩm mới.
      * @return DTO của sản phẩm đã tạo.
+     * @throws ServiceUnavailableException Nếu hàng đợi ghi đang đầy.
      */
     public ProductDTO createProduct(ProductDTO productDTO) {
-        Product product = convertToEntity(productDTO);
-        Product savedProduct = productRepository.save(product);
-        return convertToDTO(savedProduct);
+        if (createBatcher != null) {
+            try {
+                return createBatcher.submit(productDTO).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        Product savedProduct = transactionTemplate.execute(status -> {
+            Product result = productRepository.save(toNewEntity(productDTO));
+            bumpCatalogVersion();
+            return result;
+        });
+        ProductDTO savedDTO = convertToDTO(savedProduct);
+        afterSave(savedDTO, ProductChangeType.CREATED);
+        return savedDTO;
+    }
+
+    /**
+     * Nhập hàng loạt sản phẩm mới.
+     * Dữ liệu được đọc dần từ {@code products} và ghi theo từng phần
+     * ({@code product.import.chunk-size} sản phẩm), mỗi phần một transaction với
+     * JDBC batch insert. Một phần lỗi chỉ làm hỏng phần đó; các phần khác vẫn được ghi.
+     * 
+     * @param products Các DTO của sản phẩm mới, được đọc tuần tự.
+     * @return Kết quả của từng phần.
+     */
+    public BulkImportResultDTO importProducts(Iterator<ProductDTO> products) {
+        long started = System.nanoTime();
+        BulkImportResultDTO result = new BulkImportResultDTO();
+        int chunkIndex = 0;
+        long offset = 0;
+
+        while (true) {
+            List<Product> chunk = new ArrayList<>(importChunkSize);
+            RuntimeException readError = null;
+            try {
+                while (chunk.size() < importChunkSize && products.hasNext()) {
+                    chunk.add(toNewEntity(products.next()));
+                }
+            } catch (RuntimeException e) {
+                // Dữ liệu đầu vào hỏng: ghi phần đã đọc được rồi dừng
+                readError = e;
+            }
+
+            if (!chunk.isEmpty()) {
+                result.addChunk(saveChunk(chunkIndex++, offset, chunk));
+                offset += chunk.size();
+            }
+            if (readError != null) {
+                result.addChunk(new ImportChunkResultDTO(chunkIndex, offset, 0, false,
+                        "Invalid input after " + offset + " products: " + readError.getMessage()));
+                break;
+            }
+            if (chunk.size() < importChunkSize) {
+                break;
+            }
+        }
+
+        result.setElapsedMillis((System.nanoTime() - started) / 1_000_000);
+        return result;
     }
 
     /**
      * Cập nhật sản phẩm theo ID.
      * 
      * @param id         ID của sản phẩm cần cập nhật.
-     * @param productDTO DTO của sản phẩm với các thông tin cập nhật.
+     * @param productDTO DTO của sản phẩm với các thông tin cập nhật; nếu có
+     *                   {@code version}, nó phải khớp với phiên bản hiện tại.
      * @return DTO của sản phẩm đã cập nhật.
      * @throws ResourceNotFoundException Nếu không tìm thấy sản phẩm.
+     * @throws ResourceConflictException Nếu sản phẩm đã bị thay đổi bởi yêu cầu khác.
      */
     public ProductDTO updateProduct(Long id, ProductDTO productDTO) {
-        Product existingProduct = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + id));
+        Product updatedProduct = transactionTemplate.execute(status -> {
+            Product existingProduct = productRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + id));
+            checkVersion(existingProduct, productDTO.getVersion());
 
-        existingProduct.setName(productDTO.getName());
-        existingProduct.setPrice(productDTO.getPrice());
-        existingProduct.setDiscountPrice(productDTO.getDiscountPrice());
-        existingProduct.setImageUrl(productDTO.getImageUrl());
-        existingProduct.setDescription(productDTO.getDescription());
-        existingProduct.setCategory(productDTO.getCategory());
-        existingProduct.setStatus(productDTO.getStatus());
-        existingProduct.setUpdatedAt(LocalDateTime.now());
+            existingProduct.setName(productDTO.getName());
+            existingProduct.setPrice(productDTO.getPrice());
+            existingProduct.setDiscountPrice(productDTO.getDiscountPrice());
+            existingProduct.setImageUrl(productDTO.getImageUrl());
+            existingProduct.setDescription(productDTO.getDescription());
+            existingProduct.setCategory(productDTO.getCategory());
+            existingProduct.setStatus(productDTO.getStatus());
+            existingProduct.setUpdatedAt(LocalDateTime.now());
 
-        Product updatedProduct = productRepository.save(existingProduct);
-        return convertToDTO(updatedProduct);
+            return saveVersioned(existingProduct);
+        });
+        ProductDTO updatedDTO = convertToDTO(updatedProduct);
+        afterSave(updatedDTO, ProductChangeType.UPDATED);
+        return updatedDTO;
+    }
+
+    /**
+     * Cập nhật một phần sản phẩm: chỉ các trường có mặt trong {@code changes} được
+     * ghi, và câu lệnh UPDATE chỉ chứa các cột thực sự thay đổi.
+     * Nếu {@code changes} có trường {@code version}, nó phải khớp với phiên bản hiện tại.
+     * 
+     * @param id      ID của sản phẩm cần cập nhật.
+     * @param changes Các trường cần thay đổi (tên thuộc tính của ProductDTO) và giá trị mới.
+     * @return DTO của sản phẩm đã cập nhật.
+     * @throws ResourceNotFoundException Nếu không tìm thấy sản phẩm.
+     * @throws InvalidRequestException   Nếu có trường không hợp lệ hoặc không được phép sửa.
+     * @throws ResourceConflictException Nếu sản phẩm đã bị thay đổi bởi yêu cầu khác.
+     */
+    public ProductDTO patchProduct(Long id, Map<String, Object> changes) {
+        PatchResult result = transactionTemplate.execute(tx -> {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + id));
+
+            boolean changed = false;
+            for (Map.Entry<String, Object> change : changes.entrySet()) {
+                Object value = change.getValue();
+                switch (change.getKey()) {
+                    case "name" -> {
+                        String name = requireValue("name", asString(value));
+                        changed |= !name.equals(product.getName());
+                        product.setName(name);
+                    }
+                    case "price" -> {
+                        BigDecimal price = requireValue("price", asDecimal("price", value));
+                        changed |= !sameDecimal(price, product.getPrice());
+                        product.setPrice(price);
+                    }
+                    case "discountPrice" -> {
+                        BigDecimal discountPrice = asDecimal("discountPrice", value);
+                        changed |= !sameDecimal(discountPrice, product.getDiscountPrice());
+                        product.setDiscountPrice(discountPrice);
+                    }
+                    case "imageUrl" -> {
+                        String imageUrl = asString(value);
+                        changed |= !Objects.equals(imageUrl, product.getImageUrl());
+                        product.setImageUrl(imageUrl);
+                    }
+                    case "description" -> {
+                        String description = asString(value);
+                        changed |= !Objects.equals(description, product.getDescription());
+                        product.setDescription(description);
+                    }
+                    case "category" -> {
+                        String category = asString(value);
+                        changed |= !Objects.equals(category, product.getCategory());
+                        product.setCategory(category);
+                    }
+                    case "status" -> {
+                        String status = asString(value);
+                        changed |= !Objects.equals(status, product.getStatus());
+                        product.setStatus(status);
+                    }
+                    case "version" -> checkVersion(product, asLong("version", value));
+                    default -> throw new InvalidRequestException("Field cannot be patched: " + change.getKey());
+                }
+            }
+
+            if (!changed) {
+                return new PatchResult(product, false);
+            }
+            product.setUpdatedAt(LocalDateTime.now());
+            return new PatchResult(saveVersioned(product), true);
+        });
+        ProductDTO patchedDTO = convertToDTO(result.product());
+        // Không có gì thay đổi: không ghi, không phát sự kiện và không làm mất hiệu lực bộ nhớ đệm
+        if (result.changed()) {
+            afterSave(patchedDTO, ProductChangeType.UPDATED);
+        }
+        return patchedDTO;
     }
 
     /**
      * Xóa sản phẩm theo ID.
+     * Chỉ chạy một câu lệnh DELETE; số dòng bị ảnh hưởng cho biết sản phẩm có tồn tại hay không.
+     * Dấu xóa cho đồng bộ tăng dần được ghi trong cùng transaction.
      * 
      * @param id ID của sản phẩm cần xóa.
      * @throws ResourceNotFoundException Nếu không tìm thấy sản phẩm.
      */
     public void deleteProduct(Long id) {
-        Product existingProduct = productRepository.findById(id)
+        boolean deleted = transactionTemplate.execute(status -> {
+            if (productRepository.deleteProductById(id) == 0) {
+                return false;
+            }
+            writeTombstones(List.of(id));
+            return true;
+        });
+        if (!deleted) {
+            throw new ResourceNotFoundException("Product not found with ID: " + id);
+        }
+        afterDelete(id);
+    }
+
+    /**
+     * Xóa sản phẩm theo ID nếu phiên bản còn khớp.
+     * 
+     * @param id              ID của sản phẩm cần xóa.
+     * @param expectedVersion Phiên bản mong đợi, hoặc {@code null} để xóa không điều kiện.
+     * @throws ResourceNotFoundException   Nếu không tìm thấy sản phẩm.
+     * @throws PreconditionFailedException Nếu sản phẩm đã bị thay đổi.
+     */
+    public void deleteProduct(Long id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            deleteProduct(id);
+            return;
+        }
+        boolean deleted = transactionTemplate.execute(status -> {
+            if (productRepository.deleteProductByIdAndVersion(id, expectedVersion) == 0) {
+                return false;
+            }
+            writeTombstones(List.of(id));
+            return true;
+        });
+        if (!deleted) {
+            if (productRepository.existsById(id)) {
+                throw new PreconditionFailedException("Product " + id + " has been modified");
+            }
+            throw new ResourceNotFoundException("Product not found with ID: " + id);
+        }
+        afterDelete(id);
+    }
+
+    /**
+     * Xóa hàng loạt sản phẩm theo danh sách ID.
+     * Các ID được chia thành từng phần, mỗi phần một câu lệnh DELETE ... IN và ghi dấu xóa
+     * trong một transaction. ID không tồn tại được bỏ qua.
+     * 
+     * @param ids Danh sách ID cần xóa.
+     * @return Số ID yêu cầu và số sản phẩm đã xóa.
+     */
+    public BulkDeleteResultDTO deleteProducts(List<Long> ids) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        int deleted = 0;
+        for (int from = 0; from < distinctIds.size(); from += DELETE_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + DELETE_CHUNK_SIZE, distinctIds.size()));
+            List<Long> deletedIds = deleteChunk(chunk);
+            deleted += deletedIds.size();
+            deletedIds.forEach(this::afterDelete);
+        }
+        return new BulkDeleteResultDTO(distinctIds.size(), deleted);
+    }
+
+    /**
+     * Lấy thống kê của bộ nhớ đệm sản phẩm.
+     * 
+     * @return Số lần trúng, trượt và bị loại bỏ của bộ nhớ đệm.
+     */
+    public ProductCacheStats getCacheStats() {
+        return productCache.stats();
+    }
+
+    /**
+     * Đếm số sản phẩm theo khoảng giá, dùng chỉ mục giá trong bộ nhớ nếu đã sẵn sàng.
+     * 
+     * @param minPrice Giá tối thiểu (tùy chọn).
+     * @param maxPrice Giá tối đa (tùy chọn).
+     * @return Số sản phẩm có giá trong khoảng.
+     */
+    public long countProductsByPrice(BigDecimal minPrice, BigDecimal maxPrice) {
+        checkPriceRange(minPrice, maxPrice);
+        if (productPriceIndex.isReady()) {
+            return productPriceIndex.count(minPrice, maxPrice);
+        }
+        if (minPrice == null && maxPrice == null) {
+            return productRepository.count();
+        }
+        return productRepository.countByPriceRange(minPrice, maxPrice);
+    }
+
+    /**
+     * Lấy phân bố số sản phẩm theo các khoảng giá bằng nhau từ chỉ mục giá.
+     * 
+     * @param minPrice Giá tối thiểu (tùy chọn, mặc định là giá thấp nhất).
+     * @param maxPrice Giá tối đa (tùy chọn, mặc định là giá cao nhất).
+     * @param buckets  Số khoảng giá.
+     * @return Histogram giá.
+     * @throws ServiceUnavailableException Nếu chỉ mục giá chưa sẵn sàng.
+     */
+    public PriceHistogram getPriceHistogram(BigDecimal minPrice, BigDecimal maxPrice, int buckets) {
+        checkPriceRange(minPrice, maxPrice);
+        if (!productPriceIndex.isReady()) {
+            throw new ServiceUnavailableException("Price index is not ready");
+        }
+        return productPriceIndex.histogram(minPrice, maxPrice, buckets);
+    }
+
+    /**
+     * Lấy số sản phẩm theo danh mục, trạng thái và khoảng giá từ bộ đếm trong bộ nhớ.
+     * 
+     * @param name Chỉ tính các sản phẩm có tên chứa chuỗi này (tùy chọn).
+     * @return Các bộ đếm facet.
+     * @throws ServiceUnavailableException Nếu bộ đếm (hoặc chỉ mục tên khi lọc theo tên) chưa sẵn sàng.
+     */
+    public ProductFacets getFacets(String name) {
+        if (!productFacetIndex.isReady()) {
+            throw new ServiceUnavailableException("Facet counters are not ready");
+        }
+        if (name == null || name.isEmpty()) {
+            return productFacetIndex.facets();
+        }
+        if (!productNameIndex.isReady()) {
+            throw new ServiceUnavailableException("Product name index is not ready");
+        }
+        return productFacetIndex.facets(productNameIndex.matchingIds(name));
+    }
+
+    /**
+     * Dựng lại bộ đếm facet từ cơ sở dữ liệu.
+     */
+    public void rebuildFacets() {
+        productFacetIndex.rebuild();
+    }
+
+    /**
+     * Lấy các sản phẩm đã thay đổi và ID các sản phẩm đã bị xóa kể từ lần đồng bộ trước.
+     * Lần đầu gọi với {@code since}; các lần sau gửi lại {@code nextCursor} của kết quả trước.
+     * Chỉ trả về thay đổi cũ hơn {@code product.delta.settle-time} để transaction đang chạy
+     * (đã gán updatedAt nhưng chưa commit) không bị bỏ qua.
+     * 
+     * @param since  Thời điểm đồng bộ gần nhất của client (khi không có con trỏ).
+     * @param cursor Con trỏ của lần đồng bộ trước.
+     * @param limit  Số sản phẩm thay đổi và số dấu xóa tối đa mỗi loại.
+     * @return Các thay đổi kèm con trỏ cho lần đồng bộ tiếp theo.
+     * @throws InvalidRequestException Nếu thiếu cả {@code since} và {@code cursor}, hoặc con trỏ không hợp lệ.
+     * @throws ResourceGoneException   Nếu mốc đồng bộ cũ hơn thời gian giữ dấu xóa (client phải tải lại toàn bộ).
+     */
+    @Transactional(readOnly = true)
+    public ProductDeltaDTO getDelta(LocalDateTime since, String cursor, int limit) {
+        ProductDeltaCursor position;
+        if (cursor != null && !cursor.isEmpty()) {
+            position = ProductDeltaCursor.decode(cursor);
+        } else if (since != null) {
+            position = ProductDeltaCursor.since(since);
+        } else {
+            throw new InvalidRequestException("Either since or cursor is required");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (position.deletedAt().isBefore(now.minus(tombstoneRetention))) {
+            throw new ResourceGoneException("Deletions older than " + tombstoneRetention
+                    + " are no longer tracked, a full resync is required");
+        }
+        LocalDateTime until = now.minus(deltaSettleTime);
+
+        // Luồng đã đọc hết được đưa tới mốc until (không lùi so với vị trí cũ); luồng còn dữ liệu
+        // dừng ở dòng cuối cùng đã trả về
+        List<ProductDTO> changed = productRepository.findDtoChangedAfter(position.changedAt(),
+                position.changedId(), until, Limit.of(limit + 1));
+        boolean moreChanged = changed.size() > limit;
+        LocalDateTime changedAt = position.changedAt();
+        long changedId = position.changedId();
+        if (moreChanged) {
+            changed = changed.subList(0, limit);
+            changedAt = changed.get(limit - 1).getUpdatedAt();
+            changedId = changed.get(limit - 1).getId();
+        } else if (until.isAfter(changedAt)) {
+            changedAt = until;
+            changedId = Long.MAX_VALUE;
+        }
+
+        List<ProductTombstone> tombstones = productTombstoneRepository.findDeletedAfter(position.deletedAt(),
+                position.deletedId(), until, Limit.of(limit + 1));
+        boolean moreDeleted = tombstones.size() > limit;
+        LocalDateTime deletedAt = position.deletedAt();
+        long deletedId = position.deletedId();
+        if (moreDeleted) {
+            tombstones = tombstones.subList(0, limit);
+            deletedAt = tombstones.get(limit - 1).getDeletedAt();
+            deletedId = tombstones.get(limit - 1).getProductId();
+        } else if (until.isAfter(deletedAt)) {
+            deletedAt = until;
+            deletedId = Long.MAX_VALUE;
+        }
+        List<Long> deleted = new ArrayList<>(tombstones.size());
+        for (ProductTombstone tombstone : tombstones) {
+            deleted.add(tombstone.getProductId());
+        }
+
+        String nextCursor = new ProductDeltaCursor(changedAt, changedId, deletedAt, deletedId).encode();
+        return new ProductDeltaDTO(new ArrayList<>(changed), deleted, moreChanged || moreDeleted, nextCursor, until);
+    }
+
+    /**
+     * Dọn các dấu xóa cũ hơn {@code product.delta.tombstone-retention}; chạy định kỳ
+     * theo {@code product.delta.purge-interval}.
+     */
+    @Scheduled(fixedDelayString = "${product.delta.purge-interval:PT1H}",
+            initialDelayString = "${product.delta.purge-interval:PT1H}")
+    public void purgeTombstones() {
+        int purged = productTombstoneRepository.deleteDeletedBefore(LocalDateTime.now().minus(tombstoneRetention));
+        if (purged > 0) {
+            log.info("Purged {} product tombstones older than {}", purged, tombstoneRetention);
+        }
+    }
+
+    // Sau khi commit: cập nhật bộ nhớ đệm, chỉ mục và phát sự kiện thay đổi của sản phẩm vừa tạo/cập nhật.
+    // Hook của hai lần ghi cùng sản phẩm có thể chạy lệch thứ tự commit: chỉ mục bỏ qua phiên bản cũ hơn.
+    private void afterSave(ProductDTO saved, ProductChangeType change) {
+        productCache.put(saved);
+        productIndexVersions.apply(saved.getId(), saved.getVersion(), () -> {
+            productNameIndex.index(saved.getId(), saved.getName(), saved.getPrice());
+            productPriceIndex.index(saved.getId(), saved.getPrice());
+            productFacetIndex.index(saved.getId(), saved.getCategory(), saved.getStatus(), saved.getPrice());
+        });
+        productChangeFeed.publish(change, saved.getId(), saved);
+    }
+
+    // ETag theo dữ liệu trong cơ sở dữ liệu (không qua bộ nhớ đệm)
+    private String currentETag(Long id) {
+        ProductStamp stamp = productRepository.findStampById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + id));
-        productRepository.delete(existingProduct);
+        return ProductETags.of(stamp.getId(), stamp.getVersion(), stamp.getUpdatedAt());
+    }
+
+    // So sánh phiên bản client gửi lên (nếu có) với phiên bản hiện tại
+    private void checkVersion(Product product, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(product.getVersion())) {
+            throw new ResourceConflictException("Product " + product.getId() + " has been modified (version "
+                    + product.getVersion() + ", expected " + expectedVersion + ")");
+        }
+    }
+
+    // Ghi ngay để lỗi khóa lạc quan xảy ra trong transaction hiện tại
+    private Product saveVersioned(Product product) {
+        Product saved;
+        try {
+            saved = productRepository.saveAndFlush(product);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new ResourceConflictException("Product " + product.getId() + " has been modified concurrently", e);
+        }
+        bumpCatalogVersion();
+        return saved;
+    }
+
+    // Gọi ở cuối mỗi transaction ghi sản phẩm: flush các thay đổi còn chờ trước, để khóa dòng bộ đếm
+    // chỉ bị giữ trong khoảng ngắn tới lúc commit
+    private void bumpCatalogVersion() {
+        entityManager.flush();
+        productCatalogVersionRepository.increment();
+    }
+
+    private static <T> T requireValue(String field, T value) {
+        if (value == null) {
+            throw new InvalidRequestException("Field must not be null: " + field);
+        }
+        return value;
+    }
+
+    private static String asString(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static BigDecimal asDecimal(String field, Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.toString());
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Invalid number for field " + field + ": " + value, e);
+        }
+    }
+
+    private static Long asLong(String field, Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value.toString());
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Invalid number for field " + field + ": " + value, e);
+        }
     }
 
-    // Chuyển đổi từ Product sang ProductDTO
-    private ProductDTO convertToDTO(Product product) {
+    private static boolean sameDecimal(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    // Ghi một lô sản phẩm mới của ProductCreateBatcher trong một transaction
+    private List<ProductDTO> saveCreateBatch(List<ProductDTO> batch) {
+        List<Product> products = new ArrayList<>(batch.size());
+        for (ProductDTO productDTO : batch) {
+            products.add(toNewEntity(productDTO));
+        }
+        List<Product> saved = transactionTemplate.execute(status -> {
+            List<Product> result = productRepository.saveAll(products);
+            entityManager.flush();
+            bumpCatalogVersion();
+            return result;
+        });
+        meterRegistry.summary("product.create.batch.size").record(saved.size());
+        indexSaved(saved);
+        // Mỗi sản phẩm vẫn là một yêu cầu POST riêng: nạp vào bộ nhớ đệm và phát sự kiện created như khi tạo đơn lẻ
+        List<ProductDTO> savedDTOs = new ArrayList<>(saved.size());
+        for (Product product : saved) {
+            ProductDTO savedDTO = convertToDTO(product);
+            productCache.put(savedDTO);
+            productChangeFeed.publish(ProductChangeType.CREATED, savedDTO.getId(), savedDTO);
+            savedDTOs.add(savedDTO);
+        }
+        return savedDTOs;
+    }
+
+    // Ghi một phần của lần nhập hàng loạt trong một transaction
+    private ImportChunkResultDTO saveChunk(int chunkIndex, long offset, List<Product> chunk) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Không đưa sản phẩm nhập hàng loạt vào second-level cache (tránh đẩy các sản phẩm đang đọc nhiều ra)
+                entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+                productRepository.saveAll(chunk);
+                entityManager.flush();
+                entityManager.clear();
+                bumpCatalogVersion();
+            });
+        } catch (RuntimeException e) {
+            return new ImportChunkResultDTO(chunkIndex, offset, chunk.size(), false,
+                    NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        }
+        afterBulkSave(chunk);
+        return new ImportChunkResultDTO(chunkIndex, offset, chunk.size(), true, null);
+    }
+
+    // Cập nhật chỉ mục và phát sự kiện sau khi nhập hàng loạt
+    // (không nạp vào bộ nhớ đệm để tránh đẩy các sản phẩm đang đọc nhiều ra)
+    private void afterBulkSave(List<Product> saved) {
+        indexSaved(saved);
+        // Một sự kiện cho cả lô thay vì một sự kiện mỗi dòng (không làm tràn bộ đệm vòng và hàng đợi client)
+        productChangeFeed.publish(ProductChangeType.BULK_CREATED, null, null);
+    }
+
+    // Cập nhật chỉ mục với một lô sản phẩm vừa tạo (chỉ mục giá được cập nhật một lần cho cả lô)
+    private void indexSaved(List<Product> saved) {
+        long[] ids = new long[saved.size()];
+        BigDecimal[] prices = new BigDecimal[saved.size()];
+        for (int i = 0; i < saved.size(); i++) {
+            Product product = saved.get(i);
+            productNameIndex.index(product.getId(), product.getName(), product.getPrice());
+            productFacetIndex.index(product.getId(), product.getCategory(), product.getStatus(), product.getPrice());
+            ids[i] = product.getId();
+            prices[i] = product.getPrice();
+        }
+        productPriceIndex.indexAll(ids, prices);
+    }
+
+    // Xóa một phần của lần xóa hàng loạt và ghi dấu xóa trong một transaction; trả về các ID đã xóa
+    private List<Long> deleteChunk(List<Long> ids) {
+        return transactionTemplate.execute(status -> {
+            List<Long> existing = productRepository.findExistingIds(ids);
+            if (existing.isEmpty()) {
+                return existing;
+            }
+            List<Long> deletedIds = existing;
+            if (productRepository.deleteProductsByIdIn(existing) < existing.size()) {
+                // Một số sản phẩm vừa bị yêu cầu khác xóa (và ghi dấu xóa) trước câu DELETE này
+                Set<Long> tombstoned = new HashSet<>();
+                for (ProductTombstone tombstone : productTombstoneRepository.findAllById(existing)) {
+                    tombstoned.add(tombstone.getProductId());
+                }
+                deletedIds = existing.stream().filter(id -> !tombstoned.contains(id)).toList();
+            }
+            writeTombstones(deletedIds);
+            return deletedIds;
+        });
+    }
+
+    // Gọi ở cuối transaction của câu DELETE; persist trực tiếp (ID đã biết) để không SELECT trước như save()
+    private void writeTombstones(List<Long> ids) {
+        LocalDateTime deletedAt = LocalDateTime.now();
+        for (Long id : ids) {
+            entityManager.persist(new ProductTombstone(id, deletedAt));
+        }
+        bumpCatalogVersion();
+    }
+
+    // Sản phẩm mới: ID và thời điểm tạo/cập nhật do máy chủ gán, không lấy từ client,
+    // để đồng bộ tăng dần theo updatedAt không bỏ sót sản phẩm mới
+    private Product toNewEntity(ProductDTO productDTO) {
+        Product product = convertToEntity(productDTO);
+        product.setId(null);
+        product.setCreatedAt(null);
+        product.setUpdatedAt(null);
+        return product;
+    }
+
+    // Sau khi commit: cập nhật bộ nhớ đệm, chỉ mục và phát sự kiện xóa
+    private void afterDelete(Long id) {
+        productCache.evict(id);
+        productIndexVersions.remove(id, () -> {
+            productNameIndex.remove(id);
+            productPriceIndex.remove(id);
+            productFacetIndex.remove(id);
+        });
+        productChangeFeed.publish(ProductChangeType.DELETED, id, null);
+    }
+
+    private static void checkPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new InvalidRequestException("minPrice must not be greater than maxPrice");
+        }
+    }
+
+    // Đo thời gian truy vấn danh sách theo nhánh lọc (số liệu product.list.query, tag branch)
+    private <T> T timeListQuery(String branch, Supplier<T> query) {
+        return listQueryTimers.get(branch).record(query);
+    }
+
+    // Tổng số sản phẩm theo bộ lọc, lấy từ bộ nhớ đệm đếm
+    private long countProducts(String name, BigDecimal minPrice, BigDecimal maxPrice) {
+        if (name == null && minPrice != null && maxPrice != null && productPriceIndex.isReady()) {
+            return productPriceIndex.count(minPrice, maxPrice);
+        }
+        return productCountCache.get(name, minPrice, maxPrice, () -> {
+            if (name != null && minPrice != null && maxPrice != null) {
+                return productRepository.countByNameContainingIgnoreCaseAndPriceBetween(name, minPrice, maxPrice);
+            } else if (name != null) {
+                return productRepository.countByNameContainingIgnoreCase(name);
+            } else if (minPrice != null && maxPrice != null) {
+                return productRepository.countByPriceBetween(minPrice, maxPrice);
+            }
+            return productRepository.count();
+        });
+    }
+
+    // Chuyển đổi từ Product sang ProductDTO (package-private để benchmark JMH gọi trực tiếp)
+    ProductDTO convertToDTO(Product product) {
         ProductDTO productDTO = new ProductDTO();
         productDTO.setId(product.getId());
         productDTO.setName(product.getName());
@@ -129,11 +1217,12 @@ public class ProductService {
         productDTO.setStatus(product.getStatus());
         productDTO.setCreatedAt(product.getCreatedAt());
         productDTO.setUpdatedAt(product.getUpdatedAt());
+        productDTO.setVersion(product.getVersion());
         return productDTO;
     }
 
-    // Chuyển đổi từ ProductDTO sang Product
-    private Product convertToEntity(ProductDTO productDTO) {
+    // Chuyển đổi từ ProductDTO sang Product (package-private để benchmark JMH gọi trực tiếp)
+    Product convertToEntity(ProductDTO productDTO) {
         Product product = new Product();
         product.setId(productDTO.getId());
         product.setName(productDTO.getName());
@@ -148,8 +1237,21 @@ public class ProductService {
         return product;
     }
 
-    public List<ProductDTO> getAllProducts(String name, Double minPrice, Double maxPrice) {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'getAllProducts'");
+    // Kết quả của PATCH: sản phẩm sau khi áp dụng và có thay đổi thực sự hay không
+    private record PatchResult(Product product, boolean changed) {
+    }
+
+    // Khóa gộp lời gọi danh sách; giá được chuẩn hóa để 10 và 10.00 cùng một khóa
+    private record ListKey(String name, BigDecimal minPrice, BigDecimal maxPrice, int page, int size,
+            boolean withTotal) {
+
+        static ListKey of(String name, BigDecimal minPrice, BigDecimal maxPrice, int page, int size,
+                boolean withTotal) {
+            return new ListKey(name, normalize(minPrice), normalize(maxPrice), page, size, withTotal);
+        }
+
+        private static BigDecimal normalize(BigDecimal value) {
+            return value == null ? null : value.stripTrailingZeros();
+        }
     }
 }
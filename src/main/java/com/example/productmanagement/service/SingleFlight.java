@@ -0,0 +1,115 @@
+package com.example.productmanagement.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Gộp các lời gọi đồng thời có cùng khóa (single-flight): lời gọi đầu tiên (leader) truy vấn
+ * cơ sở dữ liệu, các lời gọi cùng khóa đến trong lúc đó (follower) chờ và nhận chung kết quả
+ * hoặc chung ngoại lệ. Khóa được gỡ ngay khi truy vấn xong, nên không có dữ liệu nào được giữ lại.
+ * Mỗi follower nhận một bản sao của kết quả (qua {@code copier}), nên không lời gọi nào
+ * thấy thay đổi của lời gọi khác trên DTO trả về.
+ * <p>
+ * Bảng các lượt đang chạy là {@link ConcurrentHashMap} (khóa theo từng ô), nên các khóa khác nhau
+ * không tranh chấp nhau. Số liệu (tag {@code operation}): {@code product.coalesce.requests}
+ * (tag {@code role} = leader/follower), {@code product.coalesce.fan.in} (số lời gọi được phục vụ
+ * bởi mỗi truy vấn) và {@code product.coalesce.in.flight}.
+ *
+ * @param <K> Kiểu khóa (phải có equals/hashCode theo giá trị).
+ * @param <V> Kiểu kết quả.
+ */
+final class SingleFlight<K, V> {
+
+    private final boolean enabled;
+    private final UnaryOperator<V> copier;
+    private final ConcurrentMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+    private final DistributionSummary fanIn;
+
+    SingleFlight(String operation, boolean enabled, UnaryOperator<V> copier, MeterRegistry registry) {
+        this.enabled = enabled;
+        this.copier = copier;
+        this.leaders = Counter.builder("product.coalesce.requests")
+                .description("Số lời gọi đọc theo vai trò trong single-flight")
+                .tags("operation", operation, "role", "leader")
+                .register(registry);
+        this.followers = Counter.builder("product.coalesce.requests")
+                .description("Số lời gọi đọc theo vai trò trong single-flight")
+                .tags("operation", operation, "role", "follower")
+                .register(registry);
+        this.fanIn = DistributionSummary.builder("product.coalesce.fan.in")
+                .description("Số lời gọi được phục vụ bởi mỗi truy vấn cơ sở dữ liệu")
+                .tag("operation", operation)
+                .register(registry);
+        Gauge.builder("product.coalesce.in.flight", inFlight, ConcurrentMap::size)
+                .description("Số truy vấn đang được chia sẻ")
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    /**
+     * Thực hiện {@code loader}, hoặc chờ kết quả của lời gọi cùng khóa đang chạy.
+     * Không được gọi trong transaction: follower sẽ giữ kết nối trong lúc chờ.
+     *
+     * @param key    Khóa của lời gọi.
+     * @param loader Truy vấn thực sự.
+     * @return Kết quả (follower nhận bản sao).
+     */
+    V execute(K key, Supplier<V> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Flight<V> flight = new Flight<>();
+        Flight<V> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            running.followers.incrementAndGet();
+            followers.increment();
+            return copier.apply(await(running.result));
+        }
+
+        leaders.increment();
+        try {
+            V value = loader.get();
+            inFlight.remove(key, flight);
+            flight.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            fanIn.record(1 + flight.followers.get());
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Flight<V> {
+
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private final AtomicInteger followers = new AtomicInteger();
+    }
+}
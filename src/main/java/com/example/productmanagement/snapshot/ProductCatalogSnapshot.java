@@ -0,0 +1,299 @@
+package com.example.productmanagement.snapshot;
+
+import com.example.productmanagement.dto.ProductDTO;
+import com.example.productmanagement.entity.ProductTombstone;
+import com.example.productmanagement.repository.ProductIndexRow;
+import com.example.productmanagement.repository.ProductRepository;
+import com.example.productmanagement.repository.ProductTombstoneRepository;
+import com.example.productmanagement.search.ProductFacetIndex;
+import com.example.productmanagement.search.ProductIndexRowSource;
+import com.example.productmanagement.search.ProductNameIndex;
+import com.example.productmanagement.search.ProductPriceIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Ảnh chụp danh mục sản phẩm trên đĩa để khởi động nhanh các chỉ mục trong bộ nhớ
+ * (tìm theo tên, đếm/histogram giá, facet).
+ * <p>
+ * Định kỳ, nội dung của chỉ mục tên và bộ đếm facet được ghi ra một tệp dạng cột
+ * ({@link ProductSnapshotFile}) mà không cần quét bảng. Khi ứng dụng sẵn sàng, tệp được ánh xạ
+ * bộ nhớ và đối chiếu một lần với cơ sở dữ liệu bằng {@code updatedAt} và dấu xóa kể từ mốc
+ * của ảnh chụp, nên chỉ các dòng thay đổi sau mốc đó được đọc từ cơ sở dữ liệu thay vì quét
+ * toàn bảng; cả ba chỉ mục được dựng từ cùng ảnh chụp đã đối chiếu. Nếu không có tệp, tệp hỏng,
+ * quá cũ (vượt thời gian giữ dấu xóa) hoặc có quá nhiều thay đổi cần đối chiếu, chỉ mục được dựng
+ * từ cơ sở dữ liệu như trước.
+ */
+@Component
+public class ProductCatalogSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCatalogSnapshot.class);
+
+    private static final int REPLAY_BATCH_SIZE = 1000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductTombstoneRepository productTombstoneRepository;
+
+    @Autowired
+    private ProductNameIndex productNameIndex;
+
+    @Autowired
+    private ProductPriceIndex productPriceIndex;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Value("${product.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${product.snapshot.path:data/product-catalog.snapshot}")
+    private String path;
+
+    @Value("${product.snapshot.max-replay:200000}")
+    private int maxReplay;
+
+    @Value("${product.delta.tombstone-retention:P30D}")
+    private Duration tombstoneRetention;
+
+    @Value("${product.delta.settle-time:PT5S}")
+    private Duration settleTime;
+
+    private final AtomicBoolean writing = new AtomicBoolean();
+
+    /**
+     * Dựng các chỉ mục khi ứng dụng đã sẵn sàng, từ ảnh chụp nếu dùng được.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ProductSnapshotFile snapshot = enabled ? openSnapshot() : null;
+        ReconciledSource source = snapshot == null ? null : reconcile(snapshot);
+        warm(source, productNameIndex::rebuild, productNameIndex::rebuild, productNameIndex::isReady);
+        warm(source, productPriceIndex::rebuild, productPriceIndex::rebuild, productPriceIndex::isReady);
+        warm(source, productFacetIndex::rebuild, productFacetIndex::rebuild, productFacetIndex::isReady);
+    }
+
+    /**
+     * Ghi ảnh chụp mới của danh mục từ các chỉ mục trong bộ nhớ, thay thế tệp cũ.
+     * Bỏ qua nếu chỉ mục tên hoặc bộ đếm facet chưa sẵn sàng.
+     */
+    @Scheduled(fixedDelayString = "${product.snapshot.interval:PT1H}",
+            initialDelayString = "${product.snapshot.interval:PT1H}")
+    public void writeSnapshot() {
+        if (!enabled || !writing.compareAndSet(false, true)) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            // Lấy mốc trước khi đọc chỉ mục và lùi lại, để thay đổi đã gán updatedAt nhưng chưa kịp
+            // vào chỉ mục (hoặc vào giữa lúc đọc hai chỉ mục) vẫn được đối chiếu lại khi khởi động
+            LocalDateTime capturedAt = LocalDateTime.now().minus(settleTime);
+            List<ProductIndexRow> rows = productNameIndex.rows();
+            long[] ids = rows == null ? new long[0] : rows.stream().mapToLong(ProductIndexRow::getId).toArray();
+            String[] categories = new String[ids.length];
+            String[] statuses = new String[ids.length];
+            if (rows == null || !productFacetIndex.lookup(ids, categories, statuses)) {
+                log.info("Product indexes are not ready, skipping the catalog snapshot");
+                return;
+            }
+            ProductSnapshotFile.Writer writer = new ProductSnapshotFile.Writer(capturedAt);
+            for (int i = 0; i < ids.length; i++) {
+                ProductIndexRow row = rows.get(i);
+                writer.add(new ProductSnapshotFile.SnapshotRow(ids[i], row.getName(), row.getPrice(), categories[i],
+                        statuses[i]));
+            }
+            long bytes = writer.writeTo(Path.of(path));
+            log.info("Product catalog snapshot written: {} products, {} bytes in {} ms", writer.size(), bytes,
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Product catalog snapshot write failed, the previous snapshot is kept", e);
+        } finally {
+            writing.set(false);
+        }
+    }
+
+    private ProductSnapshotFile openSnapshot() {
+        Path file = Path.of(path);
+        if (!Files.exists(file)) {
+            log.info("No product catalog snapshot at {}, building indexes from the database", file);
+            return null;
+        }
+        try {
+            ProductSnapshotFile snapshot = ProductSnapshotFile.open(file);
+            if (snapshot.capturedAt().isBefore(LocalDateTime.now().minus(tombstoneRetention))) {
+                log.info("Product catalog snapshot from {} is older than the tombstone retention, ignoring it",
+                        snapshot.capturedAt());
+                return null;
+            }
+            return snapshot;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable product catalog snapshot {}", file, e);
+            return null;
+        }
+    }
+
+    // Đối chiếu ảnh chụp với cơ sở dữ liệu một lần cho cả ba chỉ mục
+    private ReconciledSource reconcile(ProductSnapshotFile snapshot) {
+        long started = System.nanoTime();
+        try {
+            ReconciledSource source = new ReconciledSource(snapshot);
+            if (!source.replay(snapshot.capturedAt(), maxReplay)) {
+                log.info("More than {} products changed since the catalog snapshot of {}, "
+                        + "building indexes from the database", maxReplay, snapshot.capturedAt());
+                return null;
+            }
+            log.info("Reconciled product catalog snapshot of {} ({} products): {} changed, {} deleted in {} ms",
+                    snapshot.capturedAt(), snapshot.size(), source.changed.size(), source.deleted.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+            return source;
+        } catch (RuntimeException e) {
+            log.warn("Product catalog snapshot reconciliation failed, building indexes from the database", e);
+            return null;
+        }
+    }
+
+    // Dựng một chỉ mục từ ảnh chụp đã đối chiếu; nếu không được thì dựng lại từ cơ sở dữ liệu
+    private void warm(ReconciledSource source, Consumer<ProductIndexRowSource> rebuildFrom,
+            Runnable rebuild, BooleanSupplier ready) {
+        if (source != null) {
+            rebuildFrom.accept(source);
+            if (ready.getAsBoolean()) {
+                return;
+            }
+        }
+        rebuild.run();
+    }
+
+    /**
+     * Ảnh chụp cộng các thay đổi kể từ mốc của nó: dòng đã sửa/tạo thay thế dòng trong tệp,
+     * sản phẩm đã xóa bị bỏ qua; hai nguồn được trộn theo ID tăng dần.
+     * <p>
+     * Toàn bộ thay đổi được đọc một lần trước khi dựng. Mỗi chỉ mục bắt đầu dựng bằng lần gọi
+     * với {@link Long#MIN_VALUE}, tức sau khi nó đã bắt đầu ghi nhận các ghi đồng thời; lúc đó
+     * chỉ các thay đổi kể từ lần đọc trước (lùi thêm thời gian chờ commit) được đọc bổ sung,
+     * nên chỉ mục dựng sau không bỏ sót thay đổi xảy ra khi chỉ mục trước đang dựng.
+     */
+    private final class ReconciledSource implements ProductIndexRowSource {
+
+        private final ProductSnapshotFile snapshot;
+        private final Map<Long, ProductIndexRow> changed = new HashMap<>();
+        private final Set<Long> deleted = new HashSet<>();
+        private long[] changedIds;
+        private LocalDateTime replayedUntil;
+
+        private ReconciledSource(ProductSnapshotFile snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public List<ProductIndexRow> rowsAfter(long afterId, int limit) {
+            if (afterId == Long.MIN_VALUE) {
+                LocalDateTime since = replayedUntil.minus(settleTime);
+                replay(since, Integer.MAX_VALUE);
+                log.debug("Caught up product catalog snapshot changes since {}", since);
+            }
+            List<ProductIndexRow> rows = new ArrayList<>(limit);
+            int s = snapshot.indexAfter(afterId);
+            int c = firstChangedAfter(afterId);
+            while (rows.size() < limit && (s < snapshot.size() || c < changedIds.length)) {
+                long id;
+                ProductIndexRow row;
+                if (c == changedIds.length || (s < snapshot.size() && snapshot.idAt(s) < changedIds[c])) {
+                    id = snapshot.idAt(s++);
+                    row = null;
+                } else {
+                    id = changedIds[c++];
+                    row = changed.get(id);
+                    if (s < snapshot.size() && snapshot.idAt(s) == id) {
+                        s++;
+                    }
+                }
+                if (!deleted.contains(id)) {
+                    rows.add(row != null ? row : snapshot.rowAt(s - 1));
+                }
+            }
+            return rows;
+        }
+
+        private int firstChangedAfter(long afterId) {
+            int pos = Arrays.binarySearch(changedIds, afterId);
+            return pos >= 0 ? pos + 1 : -pos - 1;
+        }
+
+        /**
+         * Đọc các dòng đã sửa/tạo và dấu xóa từ {@code since} đến hiện tại, gộp vào các thay đổi đã có.
+         *
+         * @param since   Mốc bắt đầu (bao gồm).
+         * @param maxRows Số thay đổi tối đa được phép tích lũy.
+         * @return {@code false} nếu số thay đổi vượt quá {@code maxRows}; khi đó nguồn không dùng được.
+         */
+        private boolean replay(LocalDateTime since, int maxRows) {
+            LocalDateTime until = LocalDateTime.now();
+
+            LocalDateTime after = since;
+            long afterId = Long.MIN_VALUE;
+            List<ProductDTO> products;
+            do {
+                products = productRepository.findDtoChangedAfter(after, afterId, until, Limit.of(REPLAY_BATCH_SIZE));
+                for (ProductDTO product : products) {
+                    changed.put(product.getId(), new ProductSnapshotFile.SnapshotRow(product.getId(),
+                            product.getName(), product.getPrice(), product.getCategory(), product.getStatus()));
+                }
+                if (changed.size() > maxRows) {
+                    return false;
+                }
+                if (!products.isEmpty()) {
+                    after = products.get(products.size() - 1).getUpdatedAt();
+                    afterId = products.get(products.size() - 1).getId();
+                }
+            } while (products.size() == REPLAY_BATCH_SIZE);
+
+            after = since;
+            afterId = Long.MIN_VALUE;
+            List<ProductTombstone> tombstones;
+            do {
+                tombstones = productTombstoneRepository.findDeletedAfter(after, afterId, until,
+                        Limit.of(REPLAY_BATCH_SIZE));
+                for (ProductTombstone tombstone : tombstones) {
+                    deleted.add(tombstone.getProductId());
+                }
+                if (changed.size() + deleted.size() > maxRows) {
+                    return false;
+                }
+                if (!tombstones.isEmpty()) {
+                    after = tombstones.get(tombstones.size() - 1).getDeletedAt();
+                    afterId = tombstones.get(tombstones.size() - 1).getProductId();
+                }
+            } while (tombstones.size() == REPLAY_BATCH_SIZE);
+
+            changedIds = changed.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            replayedUntil = until;
+            return true;
+        }
+    }
+}
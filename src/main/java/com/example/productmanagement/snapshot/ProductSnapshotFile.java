@@ -0,0 +1,355 @@
+package com.example.productmanagement.snapshot;
+
+import com.example.productmanagement.repository.ProductIndexRow;
+import com.example.productmanagement.search.ProductIndexRowSource;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Tệp ảnh chụp danh mục sản phẩm dạng cột, được ánh xạ bộ nhớ ({@link FileChannel#map}) khi đọc.
+ * <p>
+ * Bố cục (big-endian): header {@code magic, version, mốc thời gian (giây, nano, UTC), số dòng,
+ * số giá trị danh mục, số giá trị trạng thái}; hai từ điển chuỗi (mã 0 là {@code null});
+ * các cột {@code long id} (tăng dần), {@code long giá} (đơn vị nhỏ nhất, 2 chữ số thập phân),
+ * {@code int mã danh mục}, {@code int mã trạng thái}, {@code int vị trí tên} ({@code số dòng + 1}
+ * phần tử) và các byte UTF-8 của tên (đã chuẩn hóa như chỉ mục tên lưu); cuối tệp là CRC32 của
+ * toàn bộ phần trước.
+ * <p>
+ * Dòng chỉ được giải mã khi đọc, nên mở tệp không tốn bộ nhớ heap theo số sản phẩm.
+ */
+final class ProductSnapshotFile implements ProductIndexRowSource {
+
+    // "PCS1"
+    private static final int MAGIC = 0x50435331;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4 + 4 + 4;
+    private static final int TRAILER_BYTES = 8;
+    private static final int SCALE = 2;
+    private static final long NO_PRICE = Long.MIN_VALUE;
+
+    private final ByteBuffer buffer;
+    private final LocalDateTime capturedAt;
+    private final int count;
+    private final String[] categories;
+    private final String[] statuses;
+    private final int idsAt;
+    private final int pricesAt;
+    private final int categoriesAt;
+    private final int statusesAt;
+    private final int nameOffsetsAt;
+    private final int namesAt;
+
+    private ProductSnapshotFile(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES + TRAILER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a product catalog snapshot");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported product catalog snapshot version " + buffer.getInt(4));
+        }
+        verifyChecksum(buffer);
+        this.capturedAt = LocalDateTime.ofEpochSecond(buffer.getLong(8), buffer.getInt(16), ZoneOffset.UTC);
+        this.count = buffer.getInt(20);
+        ByteBuffer in = buffer.duplicate().position(HEADER_BYTES);
+        this.categories = readDictionary(in, buffer.getInt(24));
+        this.statuses = readDictionary(in, buffer.getInt(28));
+        long columnsEnd = in.position() + 28L * count + 4;
+        if (count < 0 || columnsEnd > buffer.capacity() - TRAILER_BYTES) {
+            throw new IOException("Corrupt product catalog snapshot");
+        }
+        this.idsAt = in.position();
+        this.pricesAt = idsAt + 8 * count;
+        this.categoriesAt = pricesAt + 8 * count;
+        this.statusesAt = categoriesAt + 4 * count;
+        this.nameOffsetsAt = statusesAt + 4 * count;
+        this.namesAt = nameOffsetsAt + 4 * (count + 1);
+        if ((long) namesAt + nameOffset(count) != buffer.capacity() - TRAILER_BYTES) {
+            throw new IOException("Corrupt product catalog snapshot");
+        }
+    }
+
+    /**
+     * Ánh xạ tệp ảnh chụp vào bộ nhớ (chỉ đọc) và kiểm tra tính toàn vẹn.
+     *
+     * @param path Đường dẫn tệp.
+     * @return Ảnh chụp đã mở.
+     * @throws IOException Nếu không đọc được tệp, tệp quá lớn hoặc hỏng.
+     */
+    static ProductSnapshotFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Product catalog snapshot is larger than 2 GB");
+            }
+            // Vùng ánh xạ vẫn hợp lệ sau khi đóng channel
+            return new ProductSnapshotFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Mốc thời gian của ảnh chụp: mọi thay đổi commit trước mốc này đều có trong tệp.
+     *
+     * @return Mốc thời gian (giờ hệ thống, như {@code updatedAt}).
+     */
+    LocalDateTime capturedAt() {
+        return capturedAt;
+    }
+
+    int size() {
+        return count;
+    }
+
+    long idAt(int index) {
+        return buffer.getLong(idsAt + 8 * index);
+    }
+
+    ProductIndexRow rowAt(int index) {
+        long price = buffer.getLong(pricesAt + 8 * index);
+        int from = nameOffset(index);
+        byte[] name = new byte[nameOffset(index + 1) - from];
+        buffer.get(namesAt + from, name);
+        return new SnapshotRow(idAt(index), new String(name, StandardCharsets.UTF_8),
+                price == NO_PRICE ? null : BigDecimal.valueOf(price, SCALE),
+                categories[buffer.getInt(categoriesAt + 4 * index)],
+                statuses[buffer.getInt(statusesAt + 4 * index)]);
+    }
+
+    /**
+     * Vị trí đầu tiên có ID lớn hơn {@code afterId} (tìm kiếm nhị phân trên cột ID).
+     *
+     * @param afterId ID cần so sánh.
+     * @return Chỉ số dòng, bằng {@link #size()} nếu không còn dòng nào.
+     */
+    int indexAfter(long afterId) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (idAt(mid) <= afterId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public List<ProductIndexRow> rowsAfter(long afterId, int limit) {
+        int from = indexAfter(afterId);
+        int to = (int) Math.min(count, (long) from + limit);
+        List<ProductIndexRow> rows = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            rows.add(rowAt(i));
+        }
+        return rows;
+    }
+
+    private int nameOffset(int index) {
+        return buffer.getInt(nameOffsetsAt + 4 * index);
+    }
+
+    private static String[] readDictionary(ByteBuffer in, int size) throws IOException {
+        if (size < 0) {
+            throw new IOException("Corrupt product catalog snapshot");
+        }
+        String[] values = new String[size + 1];
+        for (int code = 1; code <= size; code++) {
+            byte[] bytes = new byte[in.getInt()];
+            in.get(bytes);
+            values[code] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+
+    private static void verifyChecksum(ByteBuffer buffer) throws IOException {
+        int end = buffer.capacity() - TRAILER_BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(0).limit(end));
+        if (crc.getValue() != buffer.getLong(end)) {
+            throw new IOException("Product catalog snapshot checksum mismatch");
+        }
+    }
+
+    /**
+     * Gom các dòng (theo thứ tự ID tăng dần) thành các cột nguyên thủy rồi ghi ra tệp.
+     * Tệp được ghi vào tệp tạm cạnh đích rồi đổi tên nguyên tử, nên người đọc không bao giờ
+     * thấy tệp ghi dở.
+     */
+    static final class Writer {
+
+        private final LocalDateTime capturedAt;
+        private final Map<String, Integer> categoryCodes = new HashMap<>();
+        private final Map<String, Integer> statusCodes = new HashMap<>();
+        private final List<String> categoryValues = new ArrayList<>();
+        private final List<String> statusValues = new ArrayList<>();
+        private long[] ids = new long[1024];
+        private long[] prices = new long[1024];
+        private int[] categoryColumn = new int[1024];
+        private int[] statusColumn = new int[1024];
+        private int[] nameOffsets = new int[1025];
+        private final ByteArrayOutputStream names = new ByteArrayOutputStream();
+        private int count;
+
+        Writer(LocalDateTime capturedAt) {
+            this.capturedAt = capturedAt;
+        }
+
+        /**
+         * Thêm một dòng; ID phải lớn hơn ID của dòng trước.
+         *
+         * @param row Dòng sản phẩm.
+         */
+        void add(ProductIndexRow row) {
+            if (count > 0 && row.getId() <= ids[count - 1]) {
+                throw new IllegalArgumentException("Snapshot rows must be added in ascending id order");
+            }
+            if (count == ids.length) {
+                int capacity = ids.length * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+                categoryColumn = Arrays.copyOf(categoryColumn, capacity);
+                statusColumn = Arrays.copyOf(statusColumn, capacity);
+                nameOffsets = Arrays.copyOf(nameOffsets, capacity + 1);
+            }
+            ids[count] = row.getId();
+            // Cột price có 2 chữ số thập phân; giá không biểu diễn chính xác được làm hỏng cả ảnh chụp
+            prices[count] = row.getPrice() == null ? NO_PRICE
+                    : row.getPrice().setScale(SCALE).unscaledValue().longValueExact();
+            categoryColumn[count] = code(row.getCategory(), categoryCodes, categoryValues);
+            statusColumn[count] = code(row.getStatus(), statusCodes, statusValues);
+            byte[] name = row.getName() == null ? new byte[0] : row.getName().getBytes(StandardCharsets.UTF_8);
+            names.writeBytes(name);
+            count++;
+            nameOffsets[count] = names.size();
+        }
+
+        int size() {
+            return count;
+        }
+
+        /**
+         * Ghi ảnh chụp ra đĩa, thay thế tệp cũ (nếu có) một cách nguyên tử.
+         *
+         * @param path Đường dẫn tệp đích.
+         * @return Số byte đã ghi.
+         * @throws IOException Nếu không ghi được tệp.
+         */
+        long writeTo(Path path) throws IOException {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try {
+                CRC32 crc = new CRC32();
+                try (OutputStream file = Files.newOutputStream(temp)) {
+                    DataOutputStream out = new DataOutputStream(
+                            new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), crc));
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeLong(capturedAt.toEpochSecond(ZoneOffset.UTC));
+                    out.writeInt(capturedAt.getNano());
+                    out.writeInt(count);
+                    out.writeInt(categoryValues.size());
+                    out.writeInt(statusValues.size());
+                    writeDictionary(out, categoryValues);
+                    writeDictionary(out, statusValues);
+                    for (int i = 0; i < count; i++) {
+                        out.writeLong(ids[i]);
+                    }
+                    for (int i = 0; i < count; i++) {
+                        out.writeLong(prices[i]);
+                    }
+                    for (int i = 0; i < count; i++) {
+                        out.writeInt(categoryColumn[i]);
+                    }
+                    for (int i = 0; i < count; i++) {
+                        out.writeInt(statusColumn[i]);
+                    }
+                    for (int i = 0; i <= count; i++) {
+                        out.writeInt(nameOffsets[i]);
+                    }
+                    names.writeTo(out);
+                    // CRC không tính chính nó
+                    long checksum = crc.getValue();
+                    out.flush();
+                    new DataOutputStream(file).writeLong(checksum);
+                }
+                if (Files.size(temp) > Integer.MAX_VALUE) {
+                    throw new IOException("Product catalog snapshot is larger than 2 GB");
+                }
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                return Files.size(path);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        // Mã 0 dành cho null; giá trị mới nhận mã tiếp theo
+        private static int code(String value, Map<String, Integer> codes, List<String> values) {
+            if (value == null) {
+                return 0;
+            }
+            return codes.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size();
+            });
+        }
+
+        private static void writeDictionary(DataOutputStream out, List<String> values) throws IOException {
+            for (String value : values) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+    record SnapshotRow(Long id, String name, BigDecimal price, String category, String status)
+            implements ProductIndexRow {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        @Override
+        public String getCategory() {
+            return category;
+        }
+
+        @Override
+        public String getStatus() {
+            return status;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+-- Chuyển khóa chính của bảng products từ IDENTITY sang sequence products_seq
+-- để Hibernate có thể gom INSERT thành JDBC batch.
+-- Chạy một lần trên cơ sở dữ liệu hiện có (bảng do Hibernate tạo với ánh xạ IDENTITY cũ), khi ứng dụng
+-- đã dừng và trước khi triển khai phiên bản mới.
+-- SQL Server không cho bỏ IDENTITY bằng ALTER COLUMN, nên ID được chép sang một cột mới rồi đổi tên;
+-- cách này không phụ thuộc kiểu của các cột khác (varchar/nvarchar, độ dài...) như ALTER TABLE ... SWITCH.
+
+SET XACT_ABORT ON;
+GO
+
+-- 1. Sequence. INCREMENT BY phải bằng allocationSize trong Product. Với optimizer "pooled", giá trị đầu tiên
+--    là cận trên của khối ID đầu tiên (Hibernate dùng start - 49 .. start), nên bắt đầu từ MAX(id) + 50.
+DECLARE @start BIGINT = (SELECT ISNULL(MAX(id), 0) + 50 FROM products);
+EXEC('CREATE SEQUENCE products_seq AS BIGINT START WITH ' + CAST(@start AS NVARCHAR(20)) + ' INCREMENT BY 50');
+GO
+
+-- 2. Cột ID mới không có IDENTITY, chép giá trị ID hiện có theo lô để giới hạn transaction log
+ALTER TABLE products ADD id_new BIGINT NULL;
+GO
+
+DECLARE @batch INT = 50000;
+WHILE 1 = 1
+BEGIN
+    UPDATE TOP (@batch) products SET id_new = id WHERE id_new IS NULL;
+    IF @@ROWCOUNT < @batch BREAK;
+END
+GO
+
+-- 3. Thay cột ID: bỏ khóa chính (tên do SQL Server sinh) và chỉ mục có cột id, đổi tên cột mới,
+--    tạo lại khóa chính và chỉ mục. Chỉ mục ix_products_updated_at được SQL Server tự dựng lại theo khóa mới.
+BEGIN TRANSACTION;
+
+ALTER TABLE products ALTER COLUMN id_new BIGINT NOT NULL;
+
+DECLARE @pk SYSNAME = (SELECT name FROM sys.key_constraints
+        WHERE parent_object_id = OBJECT_ID('products') AND type = 'PK');
+EXEC('ALTER TABLE products DROP CONSTRAINT ' + QUOTENAME(@pk));
+DROP INDEX IF EXISTS ix_products_name_id ON products;
+
+ALTER TABLE products DROP COLUMN id;
+EXEC sp_rename 'products.id_new', 'id', 'COLUMN';
+
+ALTER TABLE products ADD CONSTRAINT pk_products PRIMARY KEY CLUSTERED (id);
+-- Cho các công cụ khác chèn trực tiếp vào bảng mà không tự lấy ID từ sequence
+ALTER TABLE products ADD CONSTRAINT df_products_id DEFAULT (NEXT VALUE FOR products_seq) FOR id;
+CREATE INDEX ix_products_name_id ON products (name, id);
+
+COMMIT TRANSACTION;
+GO
@@ -10,32 +10,171 @@ const maxPrice = document.getElementById('maxPrice');
 const addProductBtn = document.getElementById('addProductBtn');
 const productModal = new bootstrap.Modal(document.getElementById('productModal'));
 const productForm = document.getElementById('productForm');
+const prevPage = document.getElementById('prevPage');
+const nextPage = document.getElementById('nextPage');
+const pageNumber = document.getElementById('pageNumber');
 let currentProductId = null; // For tracking update operations
 
-// Fetch and display products
-function fetchProducts(queryParams = '') {
-    fetch(`${apiUrl}?${queryParams}`)
+// The list endpoint returns one page (server default 100, max 1000); the table pages through it
+const pageSize = 50;
+
+// Current list filter and page, reused when the change feed asks for a full reload
+let currentQuery = '';
+let currentPage = 0;
+
+// Change feed events received while a page is loading are applied after it renders,
+// so a response computed before the change cannot overwrite it
+let latestRequest = 0;
+let loading = false;
+let pendingChanges = [];
+let reloadTimer = null;
+
+// Render one table row (summary fields only)
+function renderRow(product) {
+    return `
+        <tr id="product-row-${product.id}" data-id="${product.id}" data-name="${product.name}"
+            data-version="${product.version ?? ''}">
+            <td>${product.id}</td>
+            <td>${product.name}</td>
+            <td>${product.price}</td>
+            <td>${product.discountPrice}</td>
+            <td>${product.category}</td>
+            <td>${product.status}</td>
+            <td>
+                <button class="btn btn-primary btn-sm" onclick="viewProduct(${product.id})">View</button>
+                <button class="btn btn-warning btn-sm" onclick="editProduct(${product.id})">Edit</button>
+                <button class="btn btn-danger btn-sm" onclick="deleteProduct(${product.id})">Delete</button>
+            </td>
+        </tr>`;
+}
+
+// Fetch and display one page of products (summary view: the table does not need description/image)
+function fetchProducts(queryParams = '', page = 0) {
+    currentQuery = queryParams;
+    currentPage = page;
+    const request = ++latestRequest;
+    loading = true;
+    fetch(`${apiUrl}?view=summary&page=${page}&size=${pageSize}&${queryParams}`)
         .then(response => response.json())
         .then(products => {
-            productTable.innerHTML = '';
-            products.forEach(product => {
-                productTable.innerHTML += `
-                    <tr>
-                        <td>${product.id}</td>
-                        <td>${product.name}</td>
-                        <td>${product.price}</td>
-                        <td>${product.discountPrice}</td>
-                        <td>${product.category}</td>
-                        <td>${product.status}</td>
-                        <td>
-                            <button class="btn btn-primary btn-sm" onclick="viewProduct(${product.id})">View</button>
-                            <button class="btn btn-warning btn-sm" onclick="editProduct(${product.id})">Edit</button>
-                            <button class="btn btn-danger btn-sm" onclick="deleteProduct(${product.id})">Delete</button>
-                        </td>
-                    </tr>`;
-            });
+            if (request !== latestRequest) return; // A newer page load is in flight
+            productTable.innerHTML = products.map(renderRow).join('');
+            pageNumber.textContent = page + 1;
+            prevPage.classList.toggle('disabled', page === 0);
+            // A full page may be followed by more products; a short page is the last one
+            nextPage.classList.toggle('disabled', products.length < pageSize);
         })
-        .catch(error => console.error('Error fetching products:', error));
+        .catch(error => console.error('Error fetching products:', error))
+        .finally(() => {
+            if (request !== latestRequest) return;
+            loading = false;
+            const changes = pendingChanges;
+            pendingChanges = [];
+            changes.forEach(({ type, change }) => applyChange(type, change));
+        });
+}
+
+// Reload the current page once a burst of changes has settled
+function scheduleReload() {
+    clearTimeout(reloadTimer);
+    reloadTimer = setTimeout(() => fetchProducts(currentQuery, currentPage), 300);
+}
+
+prevPage.addEventListener('click', (e) => {
+    e.preventDefault();
+    if (currentPage > 0) fetchProducts(currentQuery, currentPage - 1);
+});
+
+nextPage.addEventListener('click', (e) => {
+    e.preventDefault();
+    if (!nextPage.classList.contains('disabled')) fetchProducts(currentQuery, currentPage + 1);
+});
+
+// Same order as the list endpoint: by name, then by ID
+function compareProducts(a, b) {
+    return String(a.name).localeCompare(String(b.name)) || a.id - b.id;
+}
+
+// Whether a product passes the name and price filter of the page on screen
+function matchesFilter(product) {
+    const params = new URLSearchParams(currentQuery);
+    const name = params.get('name');
+    const min = params.get('minPrice');
+    const max = params.get('maxPrice');
+    return (!name || String(product.name).toLowerCase().includes(name.toLowerCase()))
+        && (!min || Number(product.price) >= Number(min))
+        && (!max || Number(product.price) <= Number(max));
+}
+
+// Put a created or changed product where the list would show it on this page,
+// or take it off the page if it now belongs to another page or no longer matches the filter
+function placeRow(product) {
+    const existing = document.getElementById(`product-row-${product.id}`);
+    if (existing && existing.dataset.version !== '' && product.version != null
+            && Number(existing.dataset.version) > product.version) {
+        return; // An older change arriving after a newer one
+    }
+    if (existing) existing.remove();
+    if (!matchesFilter(product)) return;
+    const rows = Array.from(productTable.rows).map(row => ({ row, id: Number(row.dataset.id),
+        name: row.dataset.name }));
+    if (currentPage > 0 && rows.length > 0 && compareProducts(product, rows[0]) < 0) return; // Earlier page
+    const next = rows.find(other => compareProducts(product, other) < 0);
+    if (next) {
+        next.row.insertAdjacentHTML('beforebegin', renderRow(product));
+    } else if (nextPage.classList.contains('disabled')) {
+        productTable.insertAdjacentHTML('beforeend', renderRow(product)); // Last page
+    }
+}
+
+// Apply one change to the rows on screen
+function applyChange(type, change) {
+    if (type === 'deleted') {
+        const row = document.getElementById(`product-row-${change.productId}`);
+        if (row) row.remove();
+    } else {
+        placeRow(change.product);
+    }
+}
+
+// Apply a change now, or once the page being loaded has rendered
+function applyOrQueue(type, change) {
+    if (loading) {
+        pendingChanges.push({ type, change });
+    } else {
+        applyChange(type, change);
+    }
+}
+
+// Patch the table from the server's change feed instead of re-fetching the whole list.
+// The first page is loaded once the feed is connected, so no change can fall between the two;
+// after that EventSource reconnects by itself and sends Last-Event-ID, so missed events are replayed.
+function subscribeToChanges() {
+    const events = new EventSource(`${apiUrl}/events`);
+    let loaded = false;
+    const loadOnce = () => {
+        if (!loaded) {
+            loaded = true;
+            fetchProducts();
+        }
+    };
+    events.addEventListener('open', loadOnce);
+    // Feed unavailable: still show the list
+    events.addEventListener('error', loadOnce);
+
+    const onChange = (event) => applyOrQueue(event.type, JSON.parse(event.data));
+    events.addEventListener('created', onChange);
+    events.addEventListener('updated', onChange);
+    events.addEventListener('deleted', onChange);
+    // Too many events were missed, or a bulk import added many products: reload the current page
+    events.addEventListener('reset', scheduleReload);
+    events.addEventListener('bulk_created', scheduleReload);
+}
+
+// Parse a successful JSON response; an error response is not applied to the table
+function okJson(response) {
+    if (!response.ok) throw new Error(`HTTP ${response.status}`);
+    return response.json();
 }
 
 // Search products
@@ -75,10 +214,12 @@ productForm.addEventListener('submit', (e) => {
             },
             body: JSON.stringify(productData)
         })
-        .then(response => response.json())
-        .then(() => {
-            fetchProducts();
+        .then(okJson)
+        .then(product => {
             productModal.hide();
+            // Patch the table from the response instead of waiting for the change feed (it may be disconnected);
+            // the feed event for the same change is applied again without effect
+            applyOrQueue('updated', { productId: product.id, product });
         })
         .catch(error => console.error('Error updating product:', error));
     } else {
@@ -90,10 +231,10 @@ productForm.addEventListener('submit', (e) => {
             },
             body: JSON.stringify(productData)
         })
-        .then(response => response.json())
-        .then(() => {
-            fetchProducts();
+        .then(okJson)
+        .then(product => {
             productModal.hide();
+            applyOrQueue('created', { productId: product.id, product });
         })
         .catch(error => console.error('Error adding product:', error));
     }
@@ -129,8 +270,8 @@ function deleteProduct(id) {
         fetch(`${apiUrl}/${id}`, {
             method: 'DELETE'
         })
-        .then(() => {
-            fetchProducts();
+        .then(response => {
+            if (response.ok) applyOrQueue('deleted', { productId: id });
         })
         .catch(error => console.error('Error deleting product:', error));
     }
@@ -143,5 +284,5 @@ addProductBtn.addEventListener('click', () => {
     productModal.show();
 });
 
-// Initial fetch of products
-fetchProducts();
+// Connect to the change feed first; the first page is loaded once it is connected
+subscribeToChanges();
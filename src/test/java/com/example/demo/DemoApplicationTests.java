@@ -1,9 +1,12 @@
 package com.example.demo;
 
+import com.example.productmanagement.ProductManagementApplication;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
+@SpringBootTest(classes = ProductManagementApplication.class)
+@ActiveProfiles("bench")
 class DemoApplicationTests {
 
 	@Test
@@ -0,0 +1,86 @@
+package com.example.productmanagement.benchmark;
+
+import com.example.productmanagement.dto.BulkImportResultDTO;
+import com.example.productmanagement.dto.ProductDTO;
+import com.example.productmanagement.repository.ProductRepository;
+import com.example.productmanagement.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * So sánh tạo sản phẩm từng cái một ({@code createProduct}) với nhập hàng loạt
+ * ({@code importProducts}) trên H2 trong bộ nhớ; kết quả được ghi ra log và nhập hàng loạt phải nhanh hơn.
+ * Chạy bằng: {@code mvn test -Dbenchmark=true -Dtest=BulkImportBenchmark}
+ */
+@SpringBootTest
+@ActiveProfiles("bench")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BulkImportBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportBenchmark.class);
+
+    private static final int ROWS = 20_000;
+    private static final int WARMUP_ROWS = 2_000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productService.importProducts(products(WARMUP_ROWS).iterator());
+        for (ProductDTO product : products(WARMUP_ROWS / 10)) {
+            productService.createProduct(product);
+        }
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void compareOneByOneWithBulkImport() {
+        List<ProductDTO> products = products(ROWS);
+
+        long started = System.nanoTime();
+        for (ProductDTO product : products) {
+            productService.createProduct(product);
+        }
+        long oneByOneNanos = System.nanoTime() - started;
+        assertEquals(ROWS, productRepository.count());
+        productRepository.deleteAllInBatch();
+
+        started = System.nanoTime();
+        BulkImportResultDTO result = productService.importProducts(products.iterator());
+        long bulkNanos = System.nanoTime() - started;
+        assertEquals(ROWS, result.getCreated());
+        assertEquals(ROWS, productRepository.count());
+
+        log.info(String.format("one-by-one: %,d rows in %,d ms (%,.0f rows/s)", ROWS, oneByOneNanos / 1_000_000,
+                ROWS / (oneByOneNanos / 1e9)));
+        log.info(String.format("bulk:       %,d rows in %,d ms (%,.0f rows/s), %d chunks", ROWS,
+                bulkNanos / 1_000_000, ROWS / (bulkNanos / 1e9), result.getChunks().size()));
+        assertTrue(bulkNanos < oneByOneNanos, "bulk import should be faster than one-by-one creates");
+    }
+
+    private static List<ProductDTO> products(int count) {
+        List<ProductDTO> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(new ProductDTO(null, "Sản phẩm " + i, BigDecimal.valueOf(1000 + i % 500, 0),
+                    null, null, "Mô tả sản phẩm " + i, "Danh mục " + (1 + i % 3), "ACTIVE"));
+        }
+        return products;
+    }
+}
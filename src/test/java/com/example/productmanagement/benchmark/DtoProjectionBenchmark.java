@@ -0,0 +1,123 @@
+package com.example.productmanagement.benchmark;
+
+import com.example.productmanagement.dto.ProductDTO;
+import com.example.productmanagement.entity.Product;
+import com.example.productmanagement.repository.ProductRepository;
+import com.example.productmanagement.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * So sánh đọc một trang 100 sản phẩm qua entity (rồi chép sang DTO) với truy vấn
+ * chiếu thẳng vào DTO, cả hai gọi thẳng repository trong transaction chỉ đọc: thời gian và số byte cấp phát
+ * mỗi trang được ghi ra log, và truy vấn DTO phải cấp phát ít hơn.
+ * Profile {@code bench} tắt query cache, nên mỗi lần lặp của truy vấn DTO thực sự chạy câu SELECT.
+ * Chạy bằng: {@code mvn test -Dbenchmark=true -Dtest=DtoProjectionBenchmark}
+ */
+@SpringBootTest
+@ActiveProfiles("bench")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class DtoProjectionBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(DtoProjectionBenchmark.class);
+
+    private static final int ROWS = 10_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int WARMUP = 500;
+    private static final int ITERATIONS = 2_000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAllInBatch();
+        List<ProductDTO> products = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            products.add(new ProductDTO(null, "Sản phẩm " + i, BigDecimal.valueOf(1000 + i % 500, 0),
+                    null, "https://example.com/img/" + i + ".png", "Mô tả sản phẩm ".repeat(15) + i,
+                    "Danh mục " + (1 + i % 3), "ACTIVE"));
+        }
+        // Cột description dài 255 ký tự: dòng dài hơn làm hỏng cả phần nhập
+        assertEquals(ROWS, productService.importProducts(products.iterator()).getCreated());
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void compareEntityAndDtoProjection() {
+        Supplier<Integer> entityPath = () -> readOnly.execute(status -> {
+            Page<Product> page = productRepository.findAll(pageable());
+            return page.map(DtoProjectionBenchmark::copy).getNumberOfElements();
+        });
+        Supplier<Integer> dtoPath = () -> readOnly.execute(status -> productRepository.findAllDto(pageable())
+                .getNumberOfElements());
+
+        assertEquals(PAGE_SIZE, entityPath.get());
+        assertEquals(PAGE_SIZE, dtoPath.get());
+
+        long entityBytes = report("entity + convert", entityPath);
+        long dtoBytes = report("dto projection  ", dtoPath);
+        assertTrue(dtoBytes < entityBytes, "DTO projection should allocate less per page than entity + convert");
+    }
+
+    // Số byte cấp phát mỗi trang (đo trên luồng hiện tại)
+    private static long report(String label, Supplier<Integer> path) {
+        for (int i = 0; i < WARMUP; i++) {
+            path.get();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            path.get();
+        }
+        long elapsed = System.nanoTime() - started;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        log.info("{}: {} us/page, {} bytes allocated/page", label, elapsed / 1_000 / ITERATIONS,
+                allocated / ITERATIONS);
+        return allocated / ITERATIONS;
+    }
+
+    private static Pageable pageable() {
+        return PageRequest.of(3, PAGE_SIZE, Sort.by("name").ascending());
+    }
+
+    // Tương đương ProductService.convertToDTO
+    private static ProductDTO copy(Product product) {
+        return new ProductDTO(product.getId(), product.getName(), product.getPrice(), product.getDiscountPrice(),
+                product.getImageUrl(), product.getDescription(), product.getCategory(), product.getStatus(),
+                product.getCreatedAt(), product.getUpdatedAt(), product.getVersion());
+    }
+}
@@ -0,0 +1,330 @@
+package com.example.productmanagement.benchmark;
+
+import com.example.productmanagement.ProductManagementApplication;
+import com.example.productmanagement.cache.ProductCache;
+import com.example.productmanagement.cache.ProductCountCache;
+import com.example.productmanagement.search.ProductFacetIndex;
+import com.example.productmanagement.search.ProductNameIndex;
+import com.example.productmanagement.search.ProductPriceIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.HdrHistogram.Histogram;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Kiểm thử tải đầu-cuối cho {@code /api/products} trên H2 trong bộ nhớ ở chế độ tương thích
+ * SQL Server (profile {@code bench}), không cần SQL Server thật.
+ * Nạp sẵn N sản phẩm bằng SQL trực tiếp rồi dựng lại các chỉ mục trong bộ nhớ và xóa các cache
+ * (vốn được dựng khi bảng còn trống), sau đó nhiều client đồng thời gọi một tổ hợp request danh sách,
+ * lọc, tìm theo chỉ mục, chi tiết, đếm/histogram giá, facet, tạo, cập nhật và xóa. Số request/giây
+ * và các phân vị độ trễ (HdrHistogram) theo từng loại request được ghi ra log; kiểm thử thất bại
+ * nếu có request lỗi (ngoài 404 do sản phẩm đã bị client khác xóa).
+ * <p>
+ * Chạy bằng: {@code mvn test -Dbenchmark=true -Dtest=ProductApiLoadBenchmark}
+ * với các tùy chọn:
+ * <ul>
+ * <li>{@code -Dload.products=1000000}: số sản phẩm nạp sẵn (cần tăng heap qua
+ * {@code -DargLine=-Xmx4g} khi nạp vài triệu dòng);</li>
+ * <li>{@code -Dload.clients=64}, {@code -Dload.seconds=60}, {@code -Dload.warmup-seconds=10};</li>
+ * <li>{@code -Dload.mix=list:20,filter:15,search:10,get:30,prices:3,histogram:2,facets:5,create:5,update:5,
+ * delete:5}: trọng số từng loại;</li>
+ * <li>{@code -Dload.max-page=200}: trang lớn nhất được yêu cầu, để phát hiện hồi quy khi phân
+ * trang sâu.</li>
+ * </ul>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProductApiLoadBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductApiLoadBenchmark.class);
+
+    private static final int PRODUCTS = Integer.getInteger("load.products", 1_000_000);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 64);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 60);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 10);
+    private static final int MAX_PAGE = Integer.getInteger("load.max-page", 200);
+    private static final int PAGE_SIZE = 20;
+    private static final String MIX = System.getProperty("load.mix",
+            "list:20,filter:15,search:10,get:30,prices:3,histogram:2,facets:5,create:5,update:5,delete:5");
+
+    private static final int SEED_BATCH = 100_000;
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    enum Operation {
+        LIST, FILTER, SEARCH, GET, PRICES, HISTOGRAM, FACETS, CREATE, UPDATE, DELETE
+    }
+
+    @Test
+    void runMixedLoad() throws Exception {
+        Operation[] mix = parseMix(MIX);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                ProductManagementApplication.class)
+                .profiles("bench")
+                .properties("server.port=0")
+                .run()) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            long started = System.nanoTime();
+            seed(context.getBean(JdbcTemplate.class), PRODUCTS);
+            rebuildAfterSeed(context);
+            log.info("Seeded {} products and rebuilt indexes in {} ms", PRODUCTS,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+            LoadClient client = new LoadClient(port, mix);
+            client.run(WARMUP_SECONDS);
+            Map<Operation, Stats> result = client.run(SECONDS);
+
+            log.info("{} clients, {} s, mix {}", CLIENTS, SECONDS, MIX);
+            log.info(String.format("%-9s %10s %10s %9s %9s %9s %9s %9s %7s %7s", "endpoint", "requests", "req/s",
+                    "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "404", "errors"));
+            Stats total = new Stats();
+            result.forEach((operation, stats) -> {
+                log.info(stats.format(operation.name().toLowerCase(), SECONDS));
+                total.add(stats);
+            });
+            log.info(total.format("total", SECONDS));
+
+            assertThat(total.latency.getTotalCount()).as("requests").isPositive();
+            assertThat(total.errors).as("failed requests").isZero();
+        }
+    }
+
+    /**
+     * Dữ liệu được nạp bằng SQL sau khi ứng dụng đã khởi động, nên các chỉ mục trong bộ nhớ đang trống
+     * và các cache (kể cả cache cấp hai của Hibernate) không biết về các dòng mới.
+     */
+    private static void rebuildAfterSeed(ConfigurableApplicationContext context) {
+        context.getBean(ProductNameIndex.class).rebuild();
+        context.getBean(ProductPriceIndex.class).rebuild();
+        context.getBean(ProductFacetIndex.class).rebuild();
+        context.getBean(ProductCache.class).clear();
+        context.getBean(ProductCountCache.class).clear();
+        context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    /**
+     * Nạp sản phẩm bằng INSERT ... SELECT trên {@code SYSTEM_RANGE} của H2 (nhanh hơn nhiều so
+     * với đi qua JPA), rồi đặt lại sequence để các sản phẩm tạo qua API không trùng ID.
+     */
+    private static void seed(JdbcTemplate jdbc, int products) {
+        jdbc.update("delete from products");
+        // Cột của SYSTEM_RANGE tên là "X" (chữ hoa) nên được đặt lại tên, vì URL dùng DATABASE_TO_LOWER
+        for (int from = 1; from <= products; from += SEED_BATCH) {
+            int to = Math.min(products, from + SEED_BATCH - 1);
+            jdbc.update("""
+                    insert into products (id, name, price, discount_price, image_url, description, category,
+                        status, created_at, updated_at, version)
+                    select x, concat('Sản phẩm ', x), 1000 + mod(x, 500000), null, null,
+                        concat('Mô tả sản phẩm ', x), concat('Danh mục ', 1 + mod(x, 20)), 'ACTIVE',
+                        current_timestamp, current_timestamp, 0
+                    from system_range(?, ?) r(x)
+                    """, from, to);
+        }
+        // Cộng thêm một khoảng allocationSize để bộ tối ưu pooled của Hibernate không cấp lại ID đã dùng
+        jdbc.execute("alter sequence products_seq restart with " + (products + 101L));
+    }
+
+    private static Operation[] parseMix(String mix) {
+        List<Operation> slots = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid load.mix entry: " + part);
+            }
+            Operation operation = Operation.valueOf(pair[0].trim().toUpperCase());
+            for (int i = Integer.parseInt(pair[1].trim()); i > 0; i--) {
+                slots.add(operation);
+            }
+        }
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("load.mix must not be empty");
+        }
+        return slots.toArray(Operation[]::new);
+    }
+
+    private static final class LoadClient {
+
+        private final String base;
+        private final Operation[] mix;
+        private final HttpClient http;
+        // ID của sản phẩm tạo trong lần chạy, được ưu tiên xóa để không làm thủng dữ liệu nạp sẵn
+        private final ConcurrentLinkedQueue<Long> created = new ConcurrentLinkedQueue<>();
+
+        private LoadClient(int port, Operation[] mix) {
+            this.base = "http://localhost:" + port + "/api/products";
+            this.mix = mix;
+            this.http = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+        }
+
+        private Map<Operation, Stats> run(int seconds) throws Exception {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            List<Future<Map<Operation, Stats>>> futures = new ArrayList<>(CLIENTS);
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int c = 0; c < CLIENTS; c++) {
+                    futures.add(clients.submit(() -> loop(deadline)));
+                }
+            }
+            Map<Operation, Stats> merged = new EnumMap<>(Operation.class);
+            for (Future<Map<Operation, Stats>> future : futures) {
+                future.get().forEach((operation, stats) ->
+                        merged.computeIfAbsent(operation, o -> new Stats()).add(stats));
+            }
+            return merged;
+        }
+
+        private Map<Operation, Stats> loop(long deadline) {
+            Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+                Operation operation = mix[random.nextInt(mix.length)];
+                HttpRequest request = request(operation, random);
+                long started = System.nanoTime();
+                int status;
+                String body = null;
+                try {
+                    HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                    status = response.statusCode();
+                    body = response.body();
+                } catch (Exception e) {
+                    status = -1;
+                }
+                long elapsed = System.nanoTime() - started;
+                stats.computeIfAbsent(operation, o -> new Stats()).record(elapsed, status);
+                if (operation == Operation.CREATE && status == 201) {
+                    rememberCreated(body);
+                }
+            }
+            return stats;
+        }
+
+        private HttpRequest request(Operation operation, ThreadLocalRandom random) {
+            return switch (operation) {
+                case LIST -> get(base + "?page=" + random.nextInt(MAX_PAGE) + "&size=" + PAGE_SIZE);
+                case FILTER -> {
+                    long min = 1000 + random.nextInt(400_000);
+                    yield get(base + "?name=" + encode("phẩm " + random.nextInt(1, 1000))
+                            + "&minPrice=" + min + "&maxPrice=" + (min + 100_000)
+                            + "&page=" + random.nextInt(5) + "&size=" + PAGE_SIZE);
+                }
+                case SEARCH -> get(base + "/search?name=" + encode("phẩm " + random.nextInt(1, 1000))
+                        + "&page=" + random.nextInt(5) + "&size=" + PAGE_SIZE);
+                case GET -> get(base + "/" + randomSeededId(random));
+                case PRICES -> {
+                    long min = 1000 + random.nextInt(400_000);
+                    yield get(base + "/prices/count?minPrice=" + min + "&maxPrice=" + (min + 100_000));
+                }
+                case HISTOGRAM -> get(base + "/prices/histogram?buckets=20");
+                case FACETS -> get(base + "/facets" + (random.nextBoolean() ? ""
+                        : "?name=" + encode("phẩm " + random.nextInt(1, 1000))));
+                case CREATE -> json(HttpRequest.newBuilder(URI.create(base)), "POST", random);
+                case UPDATE -> json(HttpRequest.newBuilder(URI.create(base + "/" + randomSeededId(random))),
+                        "PUT", random);
+                case DELETE -> {
+                    Long id = created.poll();
+                    yield HttpRequest.newBuilder(URI.create(base + "/" + (id != null ? id : randomSeededId(random))))
+                            .timeout(Duration.ofSeconds(30))
+                            .DELETE()
+                            .build();
+                }
+            };
+        }
+
+        private static HttpRequest get(String uri) {
+            return HttpRequest.newBuilder(URI.create(uri)).timeout(Duration.ofSeconds(30)).GET().build();
+        }
+
+        private static HttpRequest json(HttpRequest.Builder builder, String method, ThreadLocalRandom random) {
+            int n = random.nextInt(1_000_000);
+            String body = "{\"name\":\"Sản phẩm tải " + n + "\",\"price\":" + (1000 + n % 500_000)
+                    + ",\"description\":\"Mô tả sản phẩm tải " + n + "\",\"category\":\"Danh mục "
+                    + (1 + n % 20) + "\",\"status\":\"ACTIVE\"}";
+            return builder.timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+
+        private void rememberCreated(String body) {
+            // Chỉ cần trường "id" ở đầu JSON, không đáng để phân tích toàn bộ
+            int start = body == null ? -1 : body.indexOf("\"id\":");
+            if (start < 0) {
+                return;
+            }
+            int end = start + 5;
+            while (end < body.length() && Character.isDigit(body.charAt(end))) {
+                end++;
+            }
+            if (end > start + 5) {
+                created.add(Long.parseLong(body.substring(start + 5, end)));
+            }
+        }
+
+        private static long randomSeededId(ThreadLocalRandom random) {
+            return random.nextLong(1, PRODUCTS + 1L);
+        }
+
+        private static String encode(String value) {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class Stats {
+
+        private final Histogram latency = new Histogram(MAX_LATENCY_NANOS, 3);
+        private long notFound;
+        private long errors;
+
+        private void record(long nanos, int status) {
+            latency.recordValue(Math.min(nanos, MAX_LATENCY_NANOS));
+            if (status == 404) {
+                // Sản phẩm đã bị client khác xóa: hợp lệ trong tổ hợp có xóa
+                notFound++;
+            } else if (status < 200 || status >= 300) {
+                errors++;
+            }
+        }
+
+        private void add(Stats other) {
+            latency.add(other.latency);
+            notFound += other.notFound;
+            errors += other.errors;
+        }
+
+        private String format(String name, int seconds) {
+            return String.format("%-9s %,10d %,10.0f %9.2f %9.2f %9.2f %9.2f %9.2f %,7d %,7d", name,
+                    latency.getTotalCount(), (double) latency.getTotalCount() / seconds, millis(50.0),
+                    millis(90.0), millis(99.0), millis(99.9), latency.getMaxValue() / 1e6, notFound, errors);
+        }
+
+        private double millis(double percentile) {
+            return latency.getValueAtPercentile(percentile) / 1e6;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.productmanagement.benchmark;
+
+import com.example.productmanagement.ProductManagementApplication;
+import com.example.productmanagement.dto.ProductDTO;
+import com.example.productmanagement.repository.ProductRepository;
+import com.example.productmanagement.service.ProductService;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * So sánh thông lượng và độ trễ đuôi giữa pool platform thread của Tomcat và chế độ
+ * virtual thread ({@code spring.threads.virtual.enabled}) với nhiều client đồng thời.
+ * Mỗi chế độ khởi động ứng dụng riêng trên cổng ngẫu nhiên, nạp dữ liệu rồi chạy cùng
+ * một tổ hợp request (80% chi tiết, 20% danh sách rút gọn).
+ * <p>
+ * Mỗi client gửi một request sau mỗi {@code bench.interval-ms}; độ trễ được ghi bằng
+ * {@link Recorder#recordValueWithExpectedInterval} nên khi máy chủ chậm hơn nhịp đó, các request
+ * lẽ ra đã được gửi trong lúc chờ vẫn được tính (hiệu chỉnh coordinated omission) thay vì biến mất
+ * khỏi các phân vị cao.
+ * <p>
+ * Ở chế độ virtual thread, các sự kiện JFR {@code jdk.VirtualThreadPinned} (virtual thread bị ghim
+ * vào carrier thread khi chặn quá 20 ms, ví dụ trong khối {@code synchronized} của driver JDBC) được
+ * đếm và ghi log kèm khung stack trên cùng. Thêm {@code -Dbench.allow-pinning=false} để kiểm thử
+ * thất bại khi có ghim, ví dụ khi thử một driver JDBC mới.
+ * <p>
+ * Chạy bằng: {@code mvn test -Dbenchmark=true -Dtest=VirtualThreadLoadBenchmark}
+ * (tùy chọn {@code -Dbench.clients=1000 -Dbench.seconds=30 -Dbench.products=20000 -Dbench.interval-ms=100}).
+ * Mặc định dùng H2 trong bộ nhớ, nơi JDBC hầu như không chặn; để thấy rõ khác biệt, trỏ
+ * {@code -Dspring.datasource.url=...} tới một SQL Server thật.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadLoadBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadLoadBenchmark.class);
+
+    private static final int CLIENTS = Integer.getInteger("bench.clients", 1000);
+    private static final int SECONDS = Integer.getInteger("bench.seconds", 30);
+    private static final int PRODUCTS = Integer.getInteger("bench.products", 20_000);
+    private static final long INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(Integer.getInteger("bench.interval-ms",
+            100));
+    private static final boolean ALLOW_PINNING = Boolean.parseBoolean(System.getProperty("bench.allow-pinning",
+            "true"));
+    private static final int WARMUP_SECONDS = 5;
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        List<String> report = new ArrayList<>();
+        long pinned = 0;
+        for (boolean virtualThreads : new boolean[] { false, true }) {
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                    ProductManagementApplication.class)
+                    .profiles("bench")
+                    .properties("server.port=0", "spring.threads.virtual.enabled=" + virtualThreads)
+                    .run()) {
+                int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                long[] ids = seed(context);
+
+                run(port, ids, WARMUP_SECONDS);
+                Result result;
+                if (virtualThreads) {
+                    try (PinningMonitor monitor = new PinningMonitor()) {
+                        result = run(port, ids, SECONDS);
+                        pinned = monitor.report();
+                    }
+                } else {
+                    result = run(port, ids, SECONDS);
+                }
+                report.add(String.format("%-16s %s", virtualThreads ? "virtual threads" : "platform threads",
+                        result));
+                assertThat(result.requests()).as("requests").isPositive();
+                assertThat(result.errors()).as("failed requests").isZero();
+            }
+        }
+        log.info("{} clients, {} s per mode, one request per client every {} ms", CLIENTS, SECONDS,
+                TimeUnit.NANOSECONDS.toMillis(INTERVAL_NANOS));
+        report.forEach(log::info);
+        if (!ALLOW_PINNING) {
+            assertThat(pinned).as("pinned virtual threads").isZero();
+        }
+    }
+
+    private static long[] seed(ConfigurableApplicationContext context) {
+        context.getBean(ProductRepository.class).deleteAllInBatch();
+        List<ProductDTO> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(new ProductDTO(null, "Sản phẩm " + i, BigDecimal.valueOf(1000 + i % 500, 0), null,
+                    null, "Mô tả sản phẩm " + i, "Danh mục " + (1 + i % 3), "ACTIVE"));
+        }
+        context.getBean(ProductService.class).importProducts(products.iterator());
+        return context.getBean(ProductRepository.class).findAll().stream().mapToLong(p -> p.getId()).toArray();
+    }
+
+    private static Result run(int port, long[] ids, int seconds) {
+        String base = "http://localhost:" + port + "/api/products";
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        Recorder recorder = new Recorder(MAX_LATENCY_NANOS, 3);
+        LongAdder requests = new LongAdder();
+        AtomicLong errors = new AtomicLong();
+        long started = System.nanoTime();
+        long deadline = started + Duration.ofSeconds(seconds).toNanos();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    // Lệch pha các client để không gửi dồn cùng lúc
+                    long next = System.nanoTime() + random.nextLong(INTERVAL_NANOS);
+                    while (next < deadline) {
+                        long wait = next - System.nanoTime();
+                        if (wait > 0) {
+                            TimeUnit.NANOSECONDS.sleep(wait);
+                        }
+                        String uri = random.nextInt(10) < 8
+                                ? base + "/" + ids[random.nextInt(ids.length)]
+                                : base + "?view=summary&size=20&page=" + random.nextInt(50);
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+                                .timeout(Duration.ofSeconds(30))
+                                .build();
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request,
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        long elapsed = System.nanoTime() - sent;
+                        requests.increment();
+                        recorder.recordValueWithExpectedInterval(Math.min(elapsed, MAX_LATENCY_NANOS),
+                                INTERVAL_NANOS);
+                        // Request chậm hơn nhịp thì request kế tiếp gửi ngay, không bù lại các nhịp đã lỡ
+                        next = Math.max(next + INTERVAL_NANOS, sent + elapsed);
+                    }
+                    return null;
+                });
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+        return new Result(recorder.getIntervalHistogram(), requests.sum(), elapsedSeconds, errors.get());
+    }
+
+    /**
+     * Độ trễ đã hiệu chỉnh coordinated omission: số mẫu gồm cả các request lẽ ra đã được gửi,
+     * nên thông lượng được tính từ số request thật.
+     */
+    private record Result(Histogram latency, long requests, double seconds, long errors) {
+
+        @Override
+        public String toString() {
+            return String.format("%,10.0f req/s  p50=%7.2f ms  p99=%8.2f ms  p99.9=%8.2f ms  max=%8.2f ms  errors=%d",
+                    requests / seconds, millis(50), millis(99), millis(99.9), latency.getMaxValue() / 1e6, errors);
+        }
+
+        private double millis(double percentile) {
+            return latency.getValueAtPercentile(percentile) / 1e6;
+        }
+    }
+
+    /**
+     * Đếm các sự kiện JFR {@code jdk.VirtualThreadPinned} theo khung stack trên cùng
+     * (bỏ qua các khung của JDK) trong lúc đo.
+     */
+    private static final class PinningMonitor implements AutoCloseable {
+
+        private final RecordingStream stream = new RecordingStream();
+        private final Map<String, LongAdder> byFrame = new ConcurrentHashMap<>();
+
+        private PinningMonitor() {
+            stream.enable("jdk.VirtualThreadPinned").withStackTrace();
+            stream.onEvent("jdk.VirtualThreadPinned", event -> byFrame
+                    .computeIfAbsent(topApplicationFrame(event.getStackTrace() == null ? List.of()
+                            : event.getStackTrace().getFrames()), f -> new LongAdder())
+                    .increment());
+            stream.startAsync();
+        }
+
+        private long report() {
+            // Đẩy các sự kiện còn trong bộ đệm ra stream trước khi đếm
+            stream.stop();
+            long total = byFrame.values().stream().mapToLong(LongAdder::sum).sum();
+            if (total == 0) {
+                log.info("No virtual thread pinning over the JFR threshold");
+            } else {
+                byFrame.forEach((frame, count) -> log.warn("Virtual thread pinned {} times at {}", count.sum(),
+                        frame));
+            }
+            return total;
+        }
+
+        private static String topApplicationFrame(List<RecordedFrame> frames) {
+            for (RecordedFrame frame : frames) {
+                String type = frame.getMethod().getType().getName();
+                if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                    return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+                }
+            }
+            return frames.isEmpty() ? "unknown" : frames.get(0).getMethod().getType().getName();
+        }
+
+        @Override
+        public void close() {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.productmanagement.cache;
+
+import com.example.productmanagement.dto.ProductDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCacheTest {
+
+    @Test
+    void olderVersionDoesNotReplaceNewerOne() {
+        ProductCache cache = new ProductCache(100, Duration.ofMinutes(5));
+
+        // Hook sau commit của lần cập nhật thứ hai chạy trước hook của lần thứ nhất
+        cache.put(product(1L, "20.00", 2L));
+        cache.put(product(1L, "10.00", 1L));
+        cache.fill(product(1L, "10.00", 1L), cache.currentEpoch());
+
+        assertThat(cache.get(1L).getVersion()).isEqualTo(2L);
+        assertThat(cache.get(1L).getPrice()).isEqualByComparingTo("20.00");
+
+        cache.put(product(1L, "30.00", 3L));
+        assertThat(cache.get(1L).getPrice()).isEqualByComparingTo("30.00");
+    }
+
+    @Test
+    void sizeLimitHoldsAcrossSegments() {
+        ProductCache cache = new ProductCache(64, Duration.ofMinutes(5));
+        for (long id = 0; id < 1000; id++) {
+            cache.put(product(id, "1.00", 0L));
+        }
+
+        assertThat(cache.stats().size()).isLessThanOrEqualTo(64);
+        assertThat(cache.get(999L)).isNotNull();
+
+        cache.clear();
+        assertThat(cache.stats().size()).isZero();
+    }
+
+    private static ProductDTO product(long id, String price, long version) {
+        return new ProductDTO(id, "Product " + id, new BigDecimal(price), null, null, null, "category", "ACTIVE",
+                null, null, version);
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.productmanagement.controller;
+
+import com.example.productmanagement.ProductManagementApplication;
+import com.example.productmanagement.dto.ProductDTO;
+import com.example.productmanagement.service.ProductService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Kiểm thử {@code /api/products} qua HTTP thật (Tomcat nhúng, H2 trong bộ nhớ, profile {@code bench}),
+ * cho các hành vi chỉ thấy được ở tầng máy chủ: nén phản hồi, ETag có điều kiện, con trỏ phân trang, cập
+ * nhật một phần và chọn trường trả về.
+ */
+@SpringBootTest(classes = ProductManagementApplication.class, webEnvironment = WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("bench")
+class ProductApiHttpTest {
+
+    private static final int SEEDED = 40;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void seed() {
+        if (productService.getAllProducts(null, null, null, 0, 1).getTotalElements() >= SEEDED) {
+            return;
+        }
+        for (int i = 0; i < SEEDED; i++) {
+            productService.createProduct(new ProductDTO(null, "Http product " + i, new BigDecimal("10.00").add(
+                    BigDecimal.valueOf(i)), null, "https://example.com/images/" + i + ".png",
+                    "Description of http product " + i, "category-" + (i % 3), "ACTIVE"));
+        }
+    }
+
+    @Test
+    void listResponseIsGzippedAndCarriesWeakETag() throws Exception {
+        HttpResponse<byte[]> response = get("/api/products?size=" + SEEDED, "Accept-Encoding", "gzip");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(response.headers().firstValue("ETag")).hasValueSatisfying(
+                etag -> assertThat(etag).startsWith("W/\""));
+    }
+
+    @Test
+    void productETagFromBodyMatchesConditionalETag() throws Exception {
+        long id = productService.getAllProducts(null, null, null, 0, 1).getContent().get(0).getId();
+
+        HttpResponse<byte[]> first = get("/api/products/" + id);
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+        HttpResponse<byte[]> second = get("/api/products/" + id, "If-None-Match", etag);
+
+        assertThat(first.statusCode()).isEqualTo(200);
+        assertThat(etag).startsWith("W/\"");
+        assertThat(second.statusCode()).isEqualTo(304);
+    }
+
+    @Test
+    void writesWithStaleIfMatchAreRejected() throws Exception {
+        ProductDTO created = productService.createProduct(new ProductDTO(null, "Http conditional write",
+                new BigDecimal("30.00"), null, null, null, "category-2", "ACTIVE"));
+        String path = "/api/products/" + created.getId();
+        String original = get(path).headers().firstValue("ETag").orElseThrow();
+        String update = "{\"name\": \"Http conditional write\", \"price\": 31.00, \"category\": \"category-2\","
+                + " \"status\": \"ACTIVE\"}";
+
+        // ETag yếu nhận từ GET được chấp nhận trong If-Match
+        assertThat(send("PUT", path, update, "If-Match", original).statusCode()).isEqualTo(200);
+        String current = get(path).headers().firstValue("ETag").orElseThrow();
+
+        assertThat(current).isNotEqualTo(original);
+        assertThat(send("PUT", path, update, "If-Match", original).statusCode()).isEqualTo(412);
+        assertThat(send("PATCH", path, "{\"price\": 1}", "If-Match", original).statusCode()).isEqualTo(412);
+        assertThat(send("DELETE", path, null, "If-Match", original).statusCode()).isEqualTo(412);
+        assertThat(productService.getProductById(created.getId()).getPrice()).isEqualByComparingTo("31.00");
+        assertThat(send("DELETE", path, null, "If-Match", current).statusCode()).isEqualTo(204);
+    }
+
+    @Test
+    void listingETagChangesWhenProductIsDeleted() throws Exception {
+        String etag = get("/api/products?size=5").headers().firstValue("ETag").orElseThrow();
+        assertThat(get("/api/products?size=5", "If-None-Match", etag).statusCode()).isEqualTo(304);
+
+        ProductDTO created = productService.createProduct(new ProductDTO(null, "Http product to delete",
+                new BigDecimal("1.00"), null, null, null, "category-0", "ACTIVE"));
+        String afterCreate = get("/api/products?size=5").headers().firstValue("ETag").orElseThrow();
+        productService.deleteProduct(created.getId());
+
+        assertThat(afterCreate).isNotEqualTo(etag);
+        assertThat(get("/api/products?size=5", "If-None-Match", afterCreate).statusCode()).isEqualTo(200);
+    }
+
+    @Test
+    void nameFilterMatchesWildcardCharactersLiterally() throws Exception {
+        productService.createProduct(new ProductDTO(null, "Http 50% off_deal", new BigDecimal("5.00"), null, null,
+                null, "category-0", "ACTIVE"));
+
+        for (String path : new String[] { "/api/products?name=0%25%20off_",
+                "/api/products?name=0%25%20off_&fields=id,name", "/api/products?name=%25&view=summary",
+                "/api/products?name=%25&fields=name", "/api/products/export?name=0%25%20off_",
+                "/api/products/export?name=%25&format=csv" }) {
+            String body = new String(get(path).body(), StandardCharsets.UTF_8);
+            assertThat(body).as(path).contains("Http 50% off_deal").doesNotContain("Http product");
+        }
+    }
+
+    @Test
+    void scrollCursorVisitsEveryProductOnceInNameOrder() throws Exception {
+        List<Long> expected = productService.getAllProducts("Http product ", null, null, 0, 1000).getContent()
+                .stream().map(ProductDTO::getId).toList();
+
+        List<Long> scrolled = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            JsonNode page = json(get("/api/products/scroll?name=Http%20product%20&size=7"
+                    + (cursor != null ? "&after=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8) : "")));
+            page.get("content").forEach(product -> scrolled.add(product.get("id").asLong()));
+            cursor = page.get("hasNext").asBoolean() ? page.get("nextCursor").asText() : null;
+            pages++;
+        } while (cursor != null && pages <= SEEDED);
+
+        assertThat(expected).hasSize(SEEDED);
+        assertThat(scrolled).isEqualTo(expected);
+        assertThat(pages).isEqualTo((SEEDED + 6) / 7);
+    }
+
+    @Test
+    void patchChangesOnlyTheGivenFields() throws Exception {
+        ProductDTO created = productService.createProduct(new ProductDTO(null, "Http patch target",
+                new BigDecimal("20.00"), null, null, "Original description", "category-1", "ACTIVE"));
+        String path = "/api/products/" + created.getId();
+
+        JsonNode priced = json(send("PATCH", path, "{\"price\": 25.5}"));
+        JsonNode cleared = json(send("PATCH", path, "{\"description\": null}"));
+        JsonNode unchanged = json(send("PATCH", path, "{\"price\": 25.50, \"category\": \"category-1\"}"));
+
+        assertThat(priced.get("price").decimalValue()).isEqualByComparingTo("25.5");
+        assertThat(priced.get("name").asText()).isEqualTo("Http patch target");
+        assertThat(priced.get("description").asText()).isEqualTo("Original description");
+        assertThat(priced.get("version").asLong()).isEqualTo(created.getVersion() + 1);
+        assertThat(cleared.get("description").isNull()).isTrue();
+        assertThat(cleared.get("price").decimalValue()).isEqualByComparingTo("25.5");
+        // Không có trường nào đổi giá trị: không ghi, phiên bản giữ nguyên
+        assertThat(unchanged.get("version").asLong()).isEqualTo(cleared.get("version").asLong());
+
+        String stale = "{\"name\": \"Renamed\", \"version\": " + created.getVersion() + "}";
+        assertThat(send("PATCH", path, stale).statusCode()).isEqualTo(409);
+        assertThat(send("PATCH", path, "{\"id\": 1}").statusCode()).isEqualTo(400);
+        assertThat(send("PATCH", path, "{\"name\": null}").statusCode()).isEqualTo(400);
+        assertThat(productService.getProductById(created.getId()).getName()).isEqualTo("Http patch target");
+    }
+
+    @Test
+    void fieldsParameterReturnsOnlyTheRequestedFields() throws Exception {
+        ProductDTO created = productService.createProduct(new ProductDTO(null, "Http sparse target",
+                new BigDecimal("12.00"), null, null, "Sparse description", "category-0", "ACTIVE"));
+
+        JsonNode single = json(get("/api/products/" + created.getId() + "?fields=name,price"));
+        JsonNode listing = json(get("/api/products?name=Http%20sparse&fields=name"));
+
+        // id luôn có mặt dù không được yêu cầu
+        assertThat(fieldNames(single)).containsExactly("id", "name", "price");
+        assertThat(single.get("id").asLong()).isEqualTo(created.getId());
+        assertThat(single.get("price").decimalValue()).isEqualByComparingTo("12.00");
+        assertThat(listing).hasSize(1);
+        assertThat(fieldNames(listing.get(0))).containsExactly("id", "name");
+        assertThat(listing.get(0).get("name").asText()).isEqualTo("Http sparse target");
+
+        assertThat(get("/api/products/" + created.getId() + "?fields=name,secret").statusCode()).isEqualTo(400);
+        assertThat(get("/api/products?fields=secret").statusCode()).isEqualTo(400);
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private JsonNode json(HttpResponse<byte[]> response) throws IOException {
+        assertThat(response.statusCode()).as(new String(response.body(), StandardCharsets.UTF_8)).isEqualTo(200);
+        return objectMapper.readTree(response.body());
+    }
+
+    private HttpResponse<byte[]> get(String path, String... headers) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (headers.length > 0) {
+            request.headers(headers);
+        }
+        return http.send(request.GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private HttpResponse<byte[]> send(String method, String path, String json, String... headers)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json");
+        if (headers.length > 0) {
+            request.headers(headers);
+        }
+        HttpRequest.BodyPublisher body = json != null ? HttpRequest.BodyPublishers.ofString(json)
+                : HttpRequest.BodyPublishers.noBody();
+        return http.send(request.method(method, body).build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
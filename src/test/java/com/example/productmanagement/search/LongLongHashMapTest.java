@@ -0,0 +1,98 @@
+package com.example.productmanagement.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongLongHashMapTest {
+
+    private static final long MISSING = -1;
+
+    @Test
+    void putOverwritesAndRemoveDeletes() {
+        LongLongHashMap map = new LongLongHashMap();
+        map.put(7, 70);
+        map.put(7, 71);
+        map.put(-3, 30);
+
+        assertThat(map.size()).isEqualTo(2);
+        assertThat(map.get(7, MISSING)).isEqualTo(71);
+        assertThat(map.get(-3, MISSING)).isEqualTo(30);
+        assertThat(map.remove(7)).isTrue();
+        assertThat(map.remove(7)).isFalse();
+        assertThat(map.containsKey(7)).isFalse();
+        assertThat(map.get(7, MISSING)).isEqualTo(MISSING);
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removeKeepsCollidingKeysReachableAcrossWrapAround() {
+        // Bảng 16 ô; các khóa cùng rơi vào ô cuối nên chuỗi dò tràn về đầu bảng
+        long[] keys = keysInSlot(15, 16, 4);
+        LongLongHashMap map = new LongLongHashMap(8);
+        for (long key : keys) {
+            map.put(key, key * 10);
+        }
+
+        assertThat(map.remove(keys[0])).isTrue();
+        assertThat(map.remove(keys[2])).isTrue();
+        assertThat(map.get(keys[1], MISSING)).isEqualTo(keys[1] * 10);
+        assertThat(map.get(keys[3], MISSING)).isEqualTo(keys[3] * 10);
+
+        map.put(keys[0], 1);
+        map.put(keys[2], 2);
+        assertThat(map.size()).isEqualTo(4);
+        assertThat(map.get(keys[0], MISSING)).isEqualTo(1);
+        assertThat(map.get(keys[2], MISSING)).isEqualTo(2);
+        assertThat(map.get(keys[3], MISSING)).isEqualTo(keys[3] * 10);
+    }
+
+    @Test
+    void matchesHashMapThroughRehashes() {
+        LongLongHashMap map = new LongLongHashMap();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextInt(5_000) - 2_500;
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(expected.remove(key) != null);
+            } else {
+                map.put(key, i);
+                expected.put(key, (long) i);
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (long key = -2_500; key < 2_500; key++) {
+            assertThat(map.get(key, MISSING)).isEqualTo(expected.getOrDefault(key, MISSING));
+        }
+        map.clear();
+        assertThat(map.size()).isZero();
+        assertThat(map.containsKey(0)).isFalse();
+    }
+
+    @Test
+    void reservedKeyIsRejected() {
+        LongLongHashMap map = new LongLongHashMap();
+
+        assertThatThrownBy(() -> map.put(Long.MIN_VALUE, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(map.remove(Long.MIN_VALUE)).isFalse();
+    }
+
+    // Cùng hàm băm với LongLongHashMap
+    private static long[] keysInSlot(int slot, int capacity, int count) {
+        long[] keys = new long[count];
+        int found = 0;
+        for (long key = 1; found < count; key++) {
+            if (((int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & (capacity - 1)) == slot) {
+                keys[found++] = key;
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.productmanagement.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static java.util.Map.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductFacetIndexTest {
+
+    private static final BigDecimal[] BANDS = { new BigDecimal("10"), new BigDecimal("100") };
+
+    @Test
+    void outerPriceBandsAreOneSidedAndBoundsBelongToTheUpperBand() {
+        ProductFacetIndex index = new ProductFacetIndex(true, BANDS);
+        index.rebuild(new TestRows()
+                .add(1, "a", "9.99", "Books", "ACTIVE")
+                .add(2, "b", "10.00", "Books", "ACTIVE")
+                .add(3, "c", "100.00", "Toys", "INACTIVE")
+                .add(4, "d", null, null, "ACTIVE"));
+
+        ProductFacets facets = index.facets();
+
+        assertThat(facets.total()).isEqualTo(4);
+        assertThat(facets.priceBands()).containsExactly(
+                new PriceBandCount(null, new BigDecimal("10.00"), 1),
+                new PriceBandCount(new BigDecimal("10.00"), new BigDecimal("100.00"), 1),
+                new PriceBandCount(new BigDecimal("100.00"), null, 1));
+        assertThat(facets.categories()).containsExactly(entry("Books", 2L), entry("Toys", 1L));
+        assertThat(facets.statuses()).containsExactly(entry("ACTIVE", 3L), entry("INACTIVE", 1L));
+    }
+
+    @Test
+    void emptyBandsAndEmptySubsetsReportZero() {
+        ProductFacetIndex index = new ProductFacetIndex(true, BANDS);
+        index.rebuild(new TestRows().add(1, "a", "50.00", "Books", "ACTIVE"));
+
+        assertThat(index.facets().priceBands()).extracting(PriceBandCount::count).containsExactly(0L, 1L, 0L);
+
+        ProductFacets none = index.facets(new long[] { 99 });
+        assertThat(none.total()).isZero();
+        assertThat(none.categories()).isEmpty();
+        assertThat(none.priceBands()).extracting(PriceBandCount::count).containsOnly(0L);
+
+        index.index(1L, "Books", "ACTIVE", new BigDecimal("5.00"));
+        assertThat(index.facets().priceBands()).extracting(PriceBandCount::count).containsExactly(1L, 0L, 0L);
+        index.remove(1L);
+        assertThat(index.facets().total()).isZero();
+        assertThat(index.facets().categories()).isEmpty();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.productmanagement.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductIndexVersionsTest {
+
+    @Test
+    void olderUpdatesAreSkipped() {
+        ProductIndexVersions versions = new ProductIndexVersions();
+        List<String> applied = new ArrayList<>();
+
+        assertThat(versions.apply(1L, 2L, () -> applied.add("v2"))).isTrue();
+        assertThat(versions.apply(1L, 1L, () -> applied.add("v1"))).isFalse();
+        assertThat(versions.apply(1L, 2L, () -> applied.add("v2 again"))).isTrue();
+        assertThat(versions.apply(1L, null, () -> applied.add("unknown"))).isTrue();
+        assertThat(versions.apply(2L, 0L, () -> applied.add("other product"))).isTrue();
+
+        assertThat(applied).containsExactly("v2", "v2 again", "unknown", "other product");
+    }
+
+    @Test
+    void updatesArrivingAfterDeleteAreSkipped() {
+        ProductIndexVersions versions = new ProductIndexVersions();
+        List<String> applied = new ArrayList<>();
+
+        versions.remove(1L, () -> applied.add("delete"));
+
+        assertThat(versions.apply(1L, 5L, () -> applied.add("late update"))).isFalse();
+        assertThat(versions.apply(1L, null, () -> applied.add("late update"))).isFalse();
+        assertThat(applied).containsExactly("delete");
+    }
+}
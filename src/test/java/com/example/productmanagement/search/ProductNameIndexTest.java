@@ -0,0 +1,64 @@
+package com.example.productmanagement.search;
+
+import com.example.productmanagement.repository.ProductIndexRow;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ProductNameIndexTest {
+
+    @Test
+    void pagesFollowNameOrderThenId() {
+        TestRows rows = new TestRows();
+        // Tên xen kẽ, có trùng tên, để mỗi trang phải lấy đúng phần của thứ tự (tên, ID)
+        for (long id = 1; id <= 200; id++) {
+            rows.add(id, "Phone " + (char) ('a' + (id * 7) % 26), String.valueOf(id), "c", "s");
+        }
+        ProductNameIndex index = new ProductNameIndex(true);
+        index.rebuild(rows);
+
+        ProductSearchResult all = index.search("phone", null, null, 0, 1000);
+        List<Long> paged = new ArrayList<>();
+        for (int offset = 0; offset < 200; offset += 30) {
+            ProductSearchResult page = index.search("phone", null, null, offset, 30);
+            assertThat(page.total()).isEqualTo(200);
+            paged.addAll(page.ids());
+        }
+
+        assertThat(all.ids()).hasSize(200);
+        assertThat(paged).isEqualTo(all.ids());
+        assertThat(all.ids().subList(0, 3)).containsExactly(26L, 52L, 78L);
+    }
+
+    @Test
+    void oneSidedPriceBoundsAreOpenOnTheOtherSide() {
+        ProductNameIndex index = new ProductNameIndex(true);
+        index.rebuild(new TestRows()
+                .add(1, "Desk lamp", "5.00", "c", "s")
+                .add(2, "Floor lamp", "50.00", "c", "s")
+                .add(3, "Lamp shade", null, "c", "s"));
+
+        assertThat(index.search("lamp", new BigDecimal("10"), null, 0, 10).ids()).containsExactly(2L);
+        assertThat(index.search("lamp", null, new BigDecimal("10"), 0, 10).ids()).containsExactly(1L);
+        assertThat(index.search("lamp", null, null, 0, 10).total()).isEqualTo(3);
+    }
+
+    @Test
+    void rowsAreExportedInIdOrderOnlyWhenReady() {
+        ProductNameIndex index = new ProductNameIndex(true);
+        assertThat(index.rows()).isNull();
+
+        index.rebuild(new TestRows()
+                .add(3, "Lamp Shade", null, "c", "s")
+                .add(1, "Desk lamp", "5.00", "c", "s"));
+
+        assertThat(index.rows()).extracting(ProductIndexRow::getId, ProductIndexRow::getName,
+                ProductIndexRow::getPrice).containsExactly(tuple(1L, "desk lamp", new BigDecimal("5.00")),
+                        tuple(3L, "lamp shade", null));
+    }
+}
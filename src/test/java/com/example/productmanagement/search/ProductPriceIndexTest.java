@@ -0,0 +1,114 @@
+package com.example.productmanagement.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductPriceIndexTest {
+
+    @Test
+    void oneSidedRangesAreOpenOnTheOtherSide() {
+        ProductPriceIndex index = indexOf("5.00", "10.00", "10.00", "50.00", null);
+
+        assertThat(index.count(null, null)).isEqualTo(4);
+        assertThat(index.count(new BigDecimal("10"), null)).isEqualTo(3);
+        assertThat(index.count(null, new BigDecimal("10"))).isEqualTo(3);
+        assertThat(index.count(new BigDecimal("10.001"), null)).isEqualTo(1);
+        assertThat(index.count(null, new BigDecimal("9.999"))).isEqualTo(1);
+        assertThat(index.contains(4, new BigDecimal("20"), null)).isTrue();
+        assertThat(index.contains(1, null, new BigDecimal("4.99"))).isFalse();
+        assertThat(index.contains(5, null, null)).isFalse();
+    }
+
+    @Test
+    void emptyAndInvertedRangesCountNothing() {
+        ProductPriceIndex index = indexOf("5.00", "10.00", "50.00");
+
+        assertThat(index.count(new BigDecimal("20"), new BigDecimal("10"))).isZero();
+        assertThat(index.count(new BigDecimal("10.001"), new BigDecimal("10.009"))).isZero();
+        assertThat(index.count(new BigDecimal("60"), null)).isZero();
+
+        PriceHistogram inverted = index.histogram(new BigDecimal("20"), new BigDecimal("10"), 4);
+        assertThat(inverted.total()).isZero();
+        assertThat(inverted.counts()).containsOnly(0L);
+    }
+
+    @Test
+    void histogramUsesIndexBoundsForMissingSide() {
+        ProductPriceIndex index = indexOf("5.00", "10.00", "50.00");
+
+        PriceHistogram upper = index.histogram(new BigDecimal("10"), null, 2);
+        assertThat(upper.minPrice()).isEqualByComparingTo("10");
+        assertThat(upper.maxPrice()).isEqualByComparingTo("50");
+        assertThat(upper.counts()).containsExactly(1L, 1L);
+        assertThat(upper.total()).isEqualTo(2);
+
+        PriceHistogram empty = indexOf().histogram(null, new BigDecimal("10"), 3);
+        assertThat(empty.total()).isZero();
+        assertThat(empty.bucketWidth()).isNull();
+    }
+
+    @Test
+    void singleWritesAndBulkWritesMatchBruteForceAcrossMerges() {
+        ProductPriceIndex index = indexOf();
+        Map<Long, BigDecimal> model = new HashMap<>();
+        Random random = new Random(42);
+        for (int step = 0; step < 3 * ProductPriceIndex.MAX_PENDING; step++) {
+            long id = 1 + random.nextInt(2_000);
+            // Ít mức giá để có nhiều giá trùng nhau
+            BigDecimal price = BigDecimal.valueOf(random.nextInt(50) * 250, 2);
+            int op = random.nextInt(10);
+            if (op < 6) {
+                index.index(id, price);
+                model.put(id, price);
+            } else if (op < 9) {
+                index.remove(id);
+                model.remove(id);
+            } else {
+                long other = 1 + random.nextInt(2_000);
+                index.indexAll(new long[] { id, other }, new BigDecimal[] { price, null });
+                model.put(id, price);
+                model.remove(other);
+            }
+            if (step % 97 == 0) {
+                assertMatches(index, model, random);
+            }
+        }
+        assertMatches(index, model, random);
+    }
+
+    private static void assertMatches(ProductPriceIndex index, Map<Long, BigDecimal> model, Random random) {
+        assertThat(index.size()).isEqualTo(model.size());
+        BigDecimal min = BigDecimal.valueOf(random.nextInt(130) * 100, 2);
+        BigDecimal max = min.add(BigDecimal.valueOf(random.nextInt(80) * 100, 2));
+        long expected = model.values().stream().filter(p -> p.compareTo(min) >= 0 && p.compareTo(max) <= 0).count();
+        assertThat(index.count(min, max)).isEqualTo(expected);
+        assertThat(index.count(null, null)).isEqualTo(model.size());
+
+        PriceHistogram histogram = index.histogram(null, null, 7);
+        assertThat(histogram.total()).isEqualTo(model.size());
+        if (!model.isEmpty()) {
+            assertThat(histogram.minPrice()).isEqualByComparingTo(Collections.min(model.values()));
+            assertThat(histogram.maxPrice()).isEqualByComparingTo(Collections.max(model.values()));
+        }
+        for (Map.Entry<Long, BigDecimal> entry : model.entrySet()) {
+            assertThat(index.contains(entry.getKey(), entry.getValue(), entry.getValue())).isTrue();
+        }
+    }
+
+    private static ProductPriceIndex indexOf(String... prices) {
+        TestRows rows = new TestRows();
+        for (int i = 0; i < prices.length; i++) {
+            rows.add(i + 1, "Product " + i, prices[i], "c", "s");
+        }
+        ProductPriceIndex index = new ProductPriceIndex(true);
+        index.rebuild(rows);
+        return index;
+    }
+}
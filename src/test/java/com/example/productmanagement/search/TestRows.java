@@ -0,0 +1,56 @@
+package com.example.productmanagement.search;
+
+import com.example.productmanagement.repository.ProductIndexRow;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Nguồn dòng trong bộ nhớ để dựng các chỉ mục trong kiểm thử, không cần cơ sở dữ liệu.
+ */
+final class TestRows implements ProductIndexRowSource {
+
+    private final List<ProductIndexRow> rows = new ArrayList<>();
+
+    TestRows add(long id, String name, String price, String category, String status) {
+        rows.add(new Row(id, name, price == null ? null : new BigDecimal(price), category, status));
+        rows.sort(Comparator.comparing(ProductIndexRow::getId));
+        return this;
+    }
+
+    @Override
+    public List<ProductIndexRow> rowsAfter(long afterId, int limit) {
+        return rows.stream().filter(row -> row.getId() > afterId).limit(limit).toList();
+    }
+
+    private record Row(Long id, String name, BigDecimal price, String category, String status)
+            implements ProductIndexRow {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        @Override
+        public String getCategory() {
+            return category;
+        }
+
+        @Override
+        public String getStatus() {
+            return status;
+        }
+    }
+}
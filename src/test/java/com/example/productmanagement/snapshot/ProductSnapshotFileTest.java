@@ -0,0 +1,90 @@
+package com.example.productmanagement.snapshot;
+
+import com.example.productmanagement.repository.ProductIndexRow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductSnapshotFileTest {
+
+    private static final LocalDateTime CAPTURED_AT = LocalDateTime.of(2024, 5, 1, 10, 30, 15, 123_456_789);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void rowsRoundTripThroughTheFile() throws IOException {
+        Path file = write();
+
+        ProductSnapshotFile snapshot = ProductSnapshotFile.open(file);
+
+        assertThat(snapshot.capturedAt()).isEqualTo(CAPTURED_AT);
+        assertThat(snapshot.size()).isEqualTo(3);
+        assertThat(snapshot.rowsAfter(Long.MIN_VALUE, 10)).containsExactly(
+                new ProductSnapshotFile.SnapshotRow(10L, "bàn phím", new BigDecimal("199000.50"), "Phụ kiện",
+                        "ACTIVE"),
+                new ProductSnapshotFile.SnapshotRow(20L, "", null, null, null),
+                new ProductSnapshotFile.SnapshotRow(30L, "chuột", new BigDecimal("-1.00"), "Phụ kiện",
+                        "INACTIVE"));
+        assertThat(snapshot.rowsAfter(10, 1)).extracting(ProductIndexRow::getId).containsExactly(20L);
+        assertThat(snapshot.rowsAfter(25, 10)).extracting(ProductIndexRow::getId).containsExactly(30L);
+        assertThat(snapshot.rowsAfter(30, 10)).isEmpty();
+    }
+
+    @Test
+    void corruptedByteIsRejectedByChecksum() throws IOException {
+        Path file = write();
+        byte[] bytes = Files.readAllBytes(file);
+        // Một byte trong cột tên, nên header và bố cục vẫn hợp lệ
+        bytes[bytes.length - 10] ^= 0x01;
+        Files.write(file, bytes);
+
+        assertThatThrownBy(() -> ProductSnapshotFile.open(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("checksum");
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        Path file = write();
+        byte[] bytes = Files.readAllBytes(file);
+
+        for (int length : new int[] { 0, 12, bytes.length / 2, bytes.length - 1 }) {
+            Files.write(file, Arrays.copyOf(bytes, length));
+            assertThatThrownBy(() -> ProductSnapshotFile.open(file)).as("length %d", length)
+                    .isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    void rowsMustBeAddedInAscendingIdOrder() {
+        ProductSnapshotFile.Writer writer = new ProductSnapshotFile.Writer(CAPTURED_AT);
+        writer.add(new ProductSnapshotFile.SnapshotRow(2L, "b", null, null, null));
+
+        assertThatThrownBy(() -> writer.add(new ProductSnapshotFile.SnapshotRow(1L, "a", null, null, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Path write() throws IOException {
+        List<ProductSnapshotFile.SnapshotRow> rows = List.of(
+                new ProductSnapshotFile.SnapshotRow(10L, "bàn phím", new BigDecimal("199000.5"), "Phụ kiện",
+                        "ACTIVE"),
+                new ProductSnapshotFile.SnapshotRow(20L, null, null, null, null),
+                new ProductSnapshotFile.SnapshotRow(30L, "chuột", new BigDecimal("-1"), "Phụ kiện", "INACTIVE"));
+        ProductSnapshotFile.Writer writer = new ProductSnapshotFile.Writer(CAPTURED_AT);
+        rows.forEach(writer::add);
+        Path file = directory.resolve("catalog.snapshot");
+        writer.writeTo(file);
+        return file;
+    }
+}